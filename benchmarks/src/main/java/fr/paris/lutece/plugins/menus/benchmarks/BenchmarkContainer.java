@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.benchmarks;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.enterprise.inject.spi.CDIProvider;
+import jakarta.enterprise.util.TypeLiteral;
+
+/**
+ * Stands in for the CDI container of the portal. The page includes and the
+ * Home classes look their services up with {@code CDI.current( )}; once
+ * started, the container answers these lookups with the beans registered by
+ * type. The events and the bean manager are not supported.
+ */
+public final class BenchmarkContainer extends CDI < Object > implements CDIProvider
+{
+	private final Map < Class < ? >, Object > _mapBeans = new HashMap <>( );
+
+	/**
+	 * Private constructor
+	 */
+	private BenchmarkContainer( )
+	{
+	}
+
+	/**
+	 * Create a container and make it the one returned by {@code CDI.current( )}
+	 * 
+	 * @return the container
+	 */
+	public static BenchmarkContainer start( )
+	{
+		BenchmarkContainer container = new BenchmarkContainer( );
+		CDI.setCDIProvider( container );
+
+		return container;
+	}
+
+	/**
+	 * Register a bean
+	 * 
+	 * @param <T>
+	 *              the type of the bean
+	 * @param type
+	 *              the type the bean is looked up with
+	 * @param bean
+	 *              the bean
+	 * @return the bean
+	 */
+	public <T> T register( Class < T > type, T bean )
+	{
+		_mapBeans.put( type, bean );
+
+		return bean;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CDI < Object > getCDI( )
+	{
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BeanManager getBeanManager( )
+	{
+		throw new UnsupportedOperationException( "No bean manager in the benchmarks" );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Instance < Object > select( Annotation... qualifiers )
+	{
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <U> Instance < U > select( Class < U > subtype, Annotation... qualifiers )
+	{
+		return new BeanInstance <>( subtype, subtype.cast( _mapBeans.get( subtype ) ) );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <U> Instance < U > select( TypeLiteral < U > subtype, Annotation... qualifiers )
+	{
+		throw new UnsupportedOperationException( "No lookup by type literal in the benchmarks" );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isUnsatisfied( )
+	{
+		return _mapBeans.isEmpty( );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isAmbiguous( )
+	{
+		return _mapBeans.size( ) > 1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void destroy( Object instance )
+	{
+		// The beans live as long as the benchmark
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Handle < Object > getHandle( )
+	{
+		throw new UnsupportedOperationException( "No handle in the benchmarks" );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterable < ? extends Handle < Object > > handles( )
+	{
+		throw new UnsupportedOperationException( "No handle in the benchmarks" );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object get( )
+	{
+		throw new UnsupportedOperationException( "Select the type of the bean" );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator < Object > iterator( )
+	{
+		return _mapBeans.values( ).iterator( );
+	}
+
+	/**
+	 * The lookup of a registered bean
+	 *
+	 * @param <T>
+	 *            the type of the bean
+	 */
+	private static final class BeanInstance < T > implements Instance < T >
+	{
+		private final Class < T > _type;
+		private final T _bean;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param type
+		 *             the type looked up
+		 * @param bean
+		 *             the bean, or null if none is registered for the type
+		 */
+		BeanInstance( Class < T > type, T bean )
+		{
+			_type = type;
+			_bean = bean;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T get( )
+		{
+			if( _bean == null )
+			{
+				throw new IllegalStateException( "No bean of type " + _type.getName( ) + " in the benchmarks" );
+			}
+
+			return _bean;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Instance < T > select( Annotation... qualifiers )
+		{
+			return this;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public <U extends T> Instance < U > select( Class < U > subtype, Annotation... qualifiers )
+		{
+			return new BeanInstance <>( subtype, subtype.isInstance( _bean ) ? subtype.cast( _bean ) : null );
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public <U extends T> Instance < U > select( TypeLiteral < U > subtype, Annotation... qualifiers )
+		{
+			throw new UnsupportedOperationException( "No lookup by type literal in the benchmarks" );
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean isUnsatisfied( )
+		{
+			return _bean == null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean isAmbiguous( )
+		{
+			return false;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void destroy( T instance )
+		{
+			// The beans live as long as the benchmark
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Handle < T > getHandle( )
+		{
+			throw new UnsupportedOperationException( "No handle in the benchmarks" );
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Iterable < ? extends Handle < T > > handles( )
+		{
+			throw new UnsupportedOperationException( "No handle in the benchmarks" );
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Iterator < T > iterator( )
+		{
+			return ( _bean == null ) ? Collections.emptyIterator( ) : List.of( _bean ).iterator( );
+		}
+	}
+}
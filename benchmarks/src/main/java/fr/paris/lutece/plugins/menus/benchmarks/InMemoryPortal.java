@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.benchmarks;
+
+import fr.paris.lutece.plugins.menus.business.CustomMenu;
+import fr.paris.lutece.plugins.menus.business.CustomMenuItem;
+import fr.paris.lutece.plugins.menus.business.PageInfo;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.plugins.menus.service.CustomMenuGraphLoader;
+import fr.paris.lutece.plugins.menus.service.CustomMenuService;
+import fr.paris.lutece.plugins.menus.service.InMemoryMenuGenerationService;
+import fr.paris.lutece.plugins.menus.service.MenuGenerationService;
+import fr.paris.lutece.plugins.menus.service.MenusRegistryService;
+import fr.paris.lutece.plugins.menus.service.MenusService;
+import fr.paris.lutece.plugins.menus.service.PageTitleIndexService;
+import fr.paris.lutece.plugins.menus.service.PageVisibilityService;
+import fr.paris.lutece.plugins.menus.service.SiteTreeService;
+import fr.paris.lutece.plugins.menus.service.cache.MenusFragmentCacheService;
+import fr.paris.lutece.plugins.menus.web.XPageTreeMenuPages;
+import fr.paris.lutece.portal.business.portalcomponent.IPortalComponentDAO;
+import fr.paris.lutece.portal.business.style.IModeDAO;
+import fr.paris.lutece.portal.business.style.Mode;
+import fr.paris.lutece.portal.business.stylesheet.StyleSheet;
+import fr.paris.lutece.portal.service.template.AppTemplateService;
+import fr.paris.lutece.portal.service.util.AppPathService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Properties;
+
+import javax.xml.transform.OutputKeys;
+
+/**
+ * The services of the plugin wired on a synthetic site and registered in a
+ * {@link BenchmarkContainer}, so that the page includes and the XPages find
+ * them as in the portal. The tree menu stylesheet and the output properties of
+ * the modes, which the portal reads from the database, are served by stand-ins
+ * of the DAO of lutece-core. The templates are read from the webapp directory
+ * of the plugin.
+ */
+public final class InMemoryPortal
+{
+	private static final String PROPERTY_WEBAPP_DIR = "menus.webapp.dir";
+	private static final String DEFAULT_WEBAPP_DIR = "webapp";
+	private static final String TEMPLATES_PATH = "/WEB-INF/templates/";
+	private static final String XSL_MENU_TREE = "/menu_tree.xsl";
+	private static final int XSL_MENU_TREE_ID = 1;
+	private static final String OUTPUT_METHOD = "html";
+	private static final String OUTPUT_VERSION = "4.01";
+	private static final String OUTPUT_ENCODING = "UTF-8";
+	private static final String NO = "no";
+	private static final String YES = "yes";
+
+	private final SiteTreeService _siteTreeService;
+	private final MenusFragmentCacheService _fragmentCacheService;
+	private final XPageTreeMenuPages _xpageTreeMenuPages;
+
+	/**
+	 * Wire the services and start the container
+	 * 
+	 * @param listPages
+	 *                  the pages of the site
+	 * @param listMenus
+	 *                  the custom menus
+	 * @param listItems
+	 *                  the custom menu items
+	 * @throws IOException
+	 *                     if the stylesheet can't be read
+	 */
+	public InMemoryPortal( List < PageInfo > listPages, List < CustomMenu > listMenus,
+			List < CustomMenuItem > listItems ) throws IOException
+	{
+		BenchmarkContainer container = BenchmarkContainer.start( );
+		container.register( IPortalComponentDAO.class,
+				StandIns.answering( IPortalComponentDAO.class, createStyleSheet( ) ) );
+		container.register( IModeDAO.class, StandIns.answering( IModeDAO.class, createMode( ), createOutputProperties( ) ) );
+
+		AppPathService.init( System.getProperty( PROPERTY_WEBAPP_DIR, DEFAULT_WEBAPP_DIR ) );
+		AppTemplateService.init( TEMPLATES_PATH );
+
+		_siteTreeService = container.register( SiteTreeService.class, new InMemorySiteTreeService( listPages ) );
+		SiteTreeSnapshot snapshot = _siteTreeService.getSnapshot( );
+
+		PageTitleIndexService pageTitleIndexService = container.register( PageTitleIndexService.class,
+				Injection.inject( new PageTitleIndexService( ), "_siteTreeService", _siteTreeService ) );
+		CustomMenuService customMenuService = container.register( CustomMenuService.class,
+				Injection.inject( new CustomMenuService( ), "_pageTitleIndexService", pageTitleIndexService ) );
+		CustomMenuGraphLoader customMenuGraphLoader = container.register( CustomMenuGraphLoader.class,
+				Injection.inject( new CustomMenuGraphLoader( ), "_customMenuService", customMenuService ) );
+
+		MenuGenerationService menuGenerationService = container.register( MenuGenerationService.class,
+				new InMemoryMenuGenerationService( snapshot, listMenus, listItems,
+						customMenuGraphLoader.buildGraph( listMenus, listItems, snapshot ) ) );
+		Injection.inject( customMenuGraphLoader, "_menuGenerationService", menuGenerationService );
+
+		PageVisibilityService pageVisibilityService = container.register( PageVisibilityService.class,
+				Injection.inject( new PageVisibilityService( ), "_siteTreeService", _siteTreeService ) );
+		_fragmentCacheService = container.register( MenusFragmentCacheService.class,
+				Injection.inject( new MenusFragmentCacheService( ), "_pageVisibilityService", pageVisibilityService ) );
+		Injection.inject( _fragmentCacheService, "_menuGenerationService", menuGenerationService );
+		_fragmentCacheService.init( );
+
+		MenusService menusService = container.register( MenusService.class, new MenusService( ) );
+		container.register( MenusRegistryService.class, new MenusRegistryService( ) );
+
+		_xpageTreeMenuPages = new XPageTreeMenuPages( );
+		Injection.inject( _xpageTreeMenuPages, "_menusService", menusService );
+		Injection.inject( _xpageTreeMenuPages, "_siteTreeService", _siteTreeService );
+	}
+
+	/**
+	 * Returns the site tree service
+	 * 
+	 * @return the site tree service
+	 */
+	public SiteTreeService getSiteTreeService( )
+	{
+		return _siteTreeService;
+	}
+
+	/**
+	 * Returns the cache of the rendered fragments
+	 * 
+	 * @return the fragment cache
+	 */
+	public MenusFragmentCacheService getFragmentCacheService( )
+	{
+		return _fragmentCacheService;
+	}
+
+	/**
+	 * Returns the XPage of the menu tree
+	 * 
+	 * @return the XPage
+	 */
+	public XPageTreeMenuPages getXPageTreeMenuPages( )
+	{
+		return _xpageTreeMenuPages;
+	}
+
+	/**
+	 * Create the stylesheet of the tree menu portal component
+	 * 
+	 * @return the stylesheet
+	 * @throws IOException
+	 *                     if the stylesheet can't be read
+	 */
+	private static StyleSheet createStyleSheet( ) throws IOException
+	{
+		StyleSheet styleSheet = new StyleSheet( );
+		styleSheet.setId( XSL_MENU_TREE_ID );
+
+		try( InputStream in = InMemoryPortal.class.getResourceAsStream( XSL_MENU_TREE ) )
+		{
+			styleSheet.setSource( in.readAllBytes( ) );
+		}
+
+		return styleSheet;
+	}
+
+	/**
+	 * Create the mode whose output properties are used by the stylesheets
+	 * 
+	 * @return the mode
+	 */
+	private static Mode createMode( )
+	{
+		Mode mode = new Mode( );
+		mode.setOutputXslPropertyMethod( OUTPUT_METHOD );
+		mode.setOutputXslPropertyVersion( OUTPUT_VERSION );
+		mode.setOutputXslPropertyEncoding( OUTPUT_ENCODING );
+		mode.setOutputXslPropertyIndent( NO );
+		mode.setOutputXslPropertyOmitXmlDeclaration( YES );
+		mode.setOutputXslPropertyStandalone( NO );
+
+		return mode;
+	}
+
+	/**
+	 * Create the output properties of the stylesheets
+	 * 
+	 * @return the output properties
+	 */
+	private static Properties createOutputProperties( )
+	{
+		Properties properties = new Properties( );
+		properties.setProperty( OutputKeys.METHOD, OUTPUT_METHOD );
+		properties.setProperty( OutputKeys.ENCODING, OUTPUT_ENCODING );
+		properties.setProperty( OutputKeys.INDENT, NO );
+		properties.setProperty( OutputKeys.OMIT_XML_DECLARATION, YES );
+
+		return properties;
+	}
+}
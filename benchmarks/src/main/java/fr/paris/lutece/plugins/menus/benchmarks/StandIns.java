@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.benchmarks;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Stand-ins of the interfaces of the portal whose implementations need a
+ * servlet container or a database : the HTTP requests and the DAO of
+ * lutece-core. A method without a given answer returns the default value of
+ * its return type.
+ */
+public final class StandIns
+{
+	private static final String SCHEME = "https";
+	private static final String SERVER_NAME = "www.example.org";
+	private static final int SERVER_PORT = 443;
+	private static final String CONTEXT_PATH = "";
+
+	/**
+	 * Private constructor
+	 */
+	private StandIns( )
+	{
+	}
+
+	/**
+	 * Create a request of an anonymous user, sent to the portal in french
+	 * 
+	 * @param mapParameters
+	 *                      the parameters of the request
+	 * @return the request
+	 */
+	public static HttpServletRequest request( Map < String, String > mapParameters )
+	{
+		Map < String, Object > mapAttributes = new HashMap <>( );
+
+		return newProxy( HttpServletRequest.class, ( proxy, method, args ) -> {
+			switch( method.getName( ) )
+			{
+				case "getParameter" :
+					return mapParameters.get( args [0] );
+				case "getParameterMap" :
+					return Collections.unmodifiableMap( mapParameters );
+				case "getAttribute" :
+					return mapAttributes.get( args [0] );
+				case "setAttribute" :
+					mapAttributes.put( (String) args [0], args [1] );
+					return null;
+				case "removeAttribute" :
+					mapAttributes.remove( args [0] );
+					return null;
+				case "getLocale" :
+					return Locale.FRENCH;
+				case "getScheme" :
+					return SCHEME;
+				case "getServerName" :
+					return SERVER_NAME;
+				case "getServerPort" :
+					return SERVER_PORT;
+				case "getContextPath" :
+					return CONTEXT_PATH;
+				case "isSecure" :
+					return true;
+				default :
+					return answer( proxy, method, args );
+			}
+		} );
+	}
+
+	/**
+	 * Create a stand-in of an interface, whose methods return the first of the
+	 * given answers matching their return type
+	 * 
+	 * @param <T>
+	 *                 the type of the interface
+	 * @param type
+	 *                 the interface, typically a DAO
+	 * @param answers
+	 *                 the answers
+	 * @return the stand-in
+	 */
+	public static <T> T answering( Class < T > type, Object... answers )
+	{
+		return newProxy( type, ( proxy, method, args ) -> {
+			for( Object answer : answers )
+			{
+				if( method.getDeclaringClass( ) != Object.class && method.getReturnType( ).isInstance( answer ) )
+				{
+					return answer;
+				}
+			}
+
+			return answer( proxy, method, args );
+		} );
+	}
+
+	/**
+	 * Create a proxy of an interface
+	 * 
+	 * @param <T>
+	 *                the type of the interface
+	 * @param type
+	 *                the interface
+	 * @param handler
+	 *                the handler of the calls
+	 * @return the proxy
+	 */
+	private static <T> T newProxy( Class < T > type, InvocationHandler handler )
+	{
+		return type.cast( Proxy.newProxyInstance( type.getClassLoader( ), new Class < ? > [ ] {
+				type
+		}, handler ) );
+	}
+
+	/**
+	 * Returns the default answer of a call : the identity for the methods of
+	 * Object, and an empty or default value otherwise
+	 * 
+	 * @param proxy
+	 *               the proxy called
+	 * @param method
+	 *               the method called
+	 * @param args
+	 *               the arguments of the call
+	 * @return the answer
+	 */
+	private static Object answer( Object proxy, Method method, Object [ ] args )
+	{
+		Class < ? > returnType = method.getReturnType( );
+
+		switch( method.getName( ) )
+		{
+			case "equals" :
+				return proxy == args [0];
+			case "hashCode" :
+				return System.identityHashCode( proxy );
+			case "toString" :
+				return "StandIn of " + proxy.getClass( ).getInterfaces( ) [0].getName( );
+			default :
+				break;
+		}
+
+		if( returnType == void.class )
+		{
+			return null;
+		}
+
+		if( returnType.isPrimitive( ) )
+		{
+			return Array.get( Array.newInstance( returnType, 1 ), 0 );
+		}
+
+		if( returnType == Enumeration.class )
+		{
+			return Collections.emptyEnumeration( );
+		}
+
+		if( returnType == List.class )
+		{
+			return Collections.emptyList( );
+		}
+
+		if( returnType == Set.class )
+		{
+			return Collections.emptySet( );
+		}
+
+		if( returnType == Map.class )
+		{
+			return Collections.emptyMap( );
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.benchmarks;
+
+import fr.paris.lutece.plugins.menus.business.CustomMenu;
+import fr.paris.lutece.plugins.menus.business.CustomMenuItem;
+import fr.paris.lutece.plugins.menus.business.PageInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic sites and custom menus. The pages are numbered breadth first from
+ * the root page, each page having nFanOut child pages, so the depth of the
+ * site grows with the number of pages and shrinks with the fan-out.
+ */
+public final class SyntheticSite
+{
+	/** The identifier of the root page */
+	public static final int ROOT_PAGE_ID = 1;
+
+	private static final String ROLE_NONE = "none";
+	private static final String ROLE_RESTRICTED = "restricted";
+	private static final int RESTRICTED_PAGES_RATIO = 20;
+
+	private static final String ITEM_TYPE_PAGE = "page";
+	private static final String ITEM_TYPE_XPAGE = "xpage";
+	private static final String ITEM_TYPE_EXTERNAL_URL = "external_url";
+	private static final String ITEM_TYPE_MENU = "menu";
+
+	/**
+	 * Private constructor
+	 */
+	private SyntheticSite( )
+	{
+	}
+
+	/**
+	 * Create the pages of a site
+	 * 
+	 * @param nPages
+	 *                the number of pages
+	 * @param nFanOut
+	 *                the number of child pages of each page
+	 * @return the pages, in breadth first order
+	 */
+	public static List < PageInfo > createPages( int nPages, int nFanOut )
+	{
+		List < PageInfo > listPages = new ArrayList <>( nPages );
+		listPages.add( new PageInfo( ROOT_PAGE_ID, 0, "Home", "Home page", 1, ROLE_NONE ) );
+
+		for( int nId = ROOT_PAGE_ID + 1 ; nId < ROOT_PAGE_ID + nPages ; nId ++ )
+		{
+			int nRank = nId - ROOT_PAGE_ID - 1;
+			String strRole = ( nId % RESTRICTED_PAGES_RATIO == 0 ) ? ROLE_RESTRICTED : ROLE_NONE;
+
+			listPages.add( new PageInfo( nId, nRank / nFanOut + ROOT_PAGE_ID, "Page " + nId, "Description of page " + nId,
+					nRank % nFanOut + 1, strRole ) );
+		}
+
+		return listPages;
+	}
+
+	/**
+	 * Returns the identifier of the last page of a site, which is one of the
+	 * deepest pages
+	 * 
+	 * @param nPages
+	 *               the number of pages
+	 * @return the page identifier
+	 */
+	public static int getDeepestPageId( int nPages )
+	{
+		return ROOT_PAGE_ID + nPages - 1;
+	}
+
+	/**
+	 * Create custom menus
+	 * 
+	 * @param nMenus
+	 *               the number of menus
+	 * @return the menus, without items
+	 */
+	public static List < CustomMenu > createMenus( int nMenus )
+	{
+		List < CustomMenu > listMenus = new ArrayList <>( nMenus );
+
+		for( int nId = 1 ; nId <= nMenus ; nId ++ )
+		{
+			CustomMenu menu = new CustomMenu( );
+			menu.setId( nId );
+			menu.setName( "Menu " + nId );
+			menu.setBookmark( "menu_" + nId );
+			menu.setType( "menu" );
+			listMenus.add( menu );
+		}
+
+		return listMenus;
+	}
+
+	/**
+	 * Create the items of custom menus. The items cycle through the item types,
+	 * an item of type menu referencing the next menu.
+	 * 
+	 * @param nMenus
+	 *                      the number of menus
+	 * @param nItemsPerMenu
+	 *                      the number of items of each menu
+	 * @param nPages
+	 *                      the number of pages of the site
+	 * @return the items, ordered by menu and by order
+	 */
+	public static List < CustomMenuItem > createMenuItems( int nMenus, int nItemsPerMenu, int nPages )
+	{
+		List < CustomMenuItem > listItems = new ArrayList <>( nMenus * nItemsPerMenu );
+		int nId = 1;
+
+		for( int nMenuId = 1 ; nMenuId <= nMenus ; nMenuId ++ )
+		{
+			for( int nOrder = 1 ; nOrder <= nItemsPerMenu ; nOrder ++ )
+			{
+				CustomMenuItem item = new CustomMenuItem( );
+				item.setId( nId );
+				item.setParentMenuId( nMenuId );
+				item.setOrder( nOrder );
+				item.setLabel( "Item " + nId );
+
+				switch( nOrder % 4 )
+				{
+					case 0 :
+						item.setType( ITEM_TYPE_MENU );
+						item.setSourceItemId( Integer.toString( nMenuId % nMenus + 1 ) );
+						break;
+					case 1 :
+						item.setType( ITEM_TYPE_PAGE );
+						item.setSourceItemId( Integer.toString( nId % nPages + ROOT_PAGE_ID ) );
+						item.setIsLabelDynamic( true );
+						break;
+					case 2 :
+						item.setType( ITEM_TYPE_XPAGE );
+						item.setSourceItemId( "xpage" + nOrder );
+						break;
+					default :
+						item.setType( ITEM_TYPE_EXTERNAL_URL );
+						item.setUrl( "https://www.example.org/" + nId );
+						break;
+				}
+
+				listItems.add( item );
+				nId ++ ;
+			}
+		}
+
+		return listItems;
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.benchmarks.InMemoryPortal;
+import fr.paris.lutece.plugins.menus.benchmarks.StandIns;
+import fr.paris.lutece.plugins.menus.benchmarks.SyntheticSite;
+import fr.paris.lutece.plugins.menus.business.CustomMenu;
+import fr.paris.lutece.plugins.menus.business.CustomMenuItem;
+import fr.paris.lutece.plugins.menus.web.CustomMenuInclude;
+import fr.paris.lutece.portal.web.constants.Parameters;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.inject.spi.CDI;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of CustomMenuInclude.fillTemplate : the load of the custom menu
+ * graph, and the custom menus put in the model of a page by the include, with
+ * the fragments rendered by the plugin templates (cold) or read from the
+ * fragment cache (warm).
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class CustomMenuBenchmark
+{
+	private static final int PAGES = 5000;
+	private static final int FAN_OUT = 10;
+
+	@Param( { "10", "100" } )
+	public int _nMenus;
+
+	@Param( { "8", "32" } )
+	public int _nItemsPerMenu;
+
+	private List < CustomMenu > _listMenus;
+	private List < CustomMenuItem > _listItems;
+	private InMemoryPortal _portal;
+	private CustomMenuService _customMenuService;
+	private CustomMenuInclude _customMenuInclude;
+	private String _strCurrentPageId;
+
+	/**
+	 * Create the site, the menus and the include
+	 * 
+	 * @throws IOException
+	 *                     if the portal can't be set up
+	 */
+	@Setup
+	public void setUp( ) throws IOException
+	{
+		_listMenus = SyntheticSite.createMenus( _nMenus );
+		_listItems = SyntheticSite.createMenuItems( _nMenus, _nItemsPerMenu, PAGES );
+		_portal = new InMemoryPortal( SyntheticSite.createPages( PAGES, FAN_OUT ), _listMenus, _listItems );
+		_customMenuService = CDI.current( ).select( CustomMenuService.class ).get( );
+		_customMenuInclude = new CustomMenuInclude( );
+		_strCurrentPageId = Integer.toString( SyntheticSite.getDeepestPageId( PAGES ) );
+	}
+
+	/**
+	 * Load the graph and resolve the labels and links of the items, as after a
+	 * change of the custom menus
+	 * 
+	 * @return the graph
+	 */
+	@Benchmark
+	public List < CustomMenu > loadGraph( )
+	{
+		List < CustomMenu > listGraph = CustomMenuGraphLoader.loadGraph( _listMenus, _listItems );
+		_customMenuService.resolveItems( listGraph );
+
+		return listGraph;
+	}
+
+	/**
+	 * Fill the model of a page whose fragments are not cached yet
+	 * 
+	 * @return the model
+	 */
+	@Benchmark
+	public Map < String, Object > fillTemplateCold( )
+	{
+		_portal.getFragmentCacheService( ).resetCache( );
+
+		return fillTemplate( );
+	}
+
+	/**
+	 * Fill the model of a page whose fragments are cached
+	 * 
+	 * @return the model
+	 */
+	@Benchmark
+	public Map < String, Object > fillTemplateWarm( )
+	{
+		return fillTemplate( );
+	}
+
+	/**
+	 * Fill the model of a page for a new request
+	 * 
+	 * @return the model
+	 */
+	private Map < String, Object > fillTemplate( )
+	{
+		Map < String, Object > model = new HashMap <>( );
+		_customMenuInclude.fillTemplate( model, null, MenusService.MODE_SITE,
+				StandIns.request( Map.of( Parameters.PAGE_ID, _strCurrentPageId ) ) );
+
+		return model;
+	}
+}
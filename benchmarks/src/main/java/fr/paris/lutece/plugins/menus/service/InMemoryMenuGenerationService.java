@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.CustomMenu;
+import fr.paris.lutece.plugins.menus.business.CustomMenuItem;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+
+import java.util.List;
+
+/**
+ * Menu generation service serving a generation built from lists instead of the
+ * database. It is declared in the package of {@link MenuGeneration}, whose
+ * constructor is not public.
+ */
+public class InMemoryMenuGenerationService extends MenuGenerationService
+{
+	private static final long GENERATION_VERSION = 1L;
+
+	private final MenuGeneration _generation;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param snapshot
+	 *                        the site tree snapshot
+	 * @param listMenus
+	 *                        the custom menus
+	 * @param listItems
+	 *                        the custom menu items
+	 * @param listCustomMenus
+	 *                        the resolved custom menus graph
+	 */
+	public InMemoryMenuGenerationService( SiteTreeSnapshot snapshot, List < CustomMenu > listMenus,
+			List < CustomMenuItem > listItems, List < CustomMenu > listCustomMenus )
+	{
+		_generation = new MenuGeneration( GENERATION_VERSION, snapshot, listMenus, listItems, listCustomMenus );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public MenuGeneration getGeneration( )
+	{
+		return _generation;
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.benchmarks.InMemoryPortal;
+import fr.paris.lutece.plugins.menus.benchmarks.StandIns;
+import fr.paris.lutece.plugins.menus.benchmarks.SyntheticSite;
+import fr.paris.lutece.plugins.menus.web.XPageTreeMenuPages;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Benchmarks of XPageTreeMenuPages.getMenuTree : the full tree written as JSON
+ * to the response, here a stream discarding the bytes.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class MenuTreeJsonBenchmark
+{
+	@Param( { "100", "5000", "50000" } )
+	public int _nPages;
+
+	@Param( { "4", "16" } )
+	public int _nFanOut;
+
+	private XPageTreeMenuPages _xpageTreeMenuPages;
+	private ObjectMapper _mapper;
+
+	/**
+	 * Create the site and the XPage
+	 * 
+	 * @throws IOException
+	 *                     if the portal can't be set up
+	 */
+	@Setup
+	public void setUp( ) throws IOException
+	{
+		_xpageTreeMenuPages = new InMemoryPortal( SyntheticSite.createPages( _nPages, _nFanOut ),
+				Collections.emptyList( ), Collections.emptyList( ) ).getXPageTreeMenuPages( );
+		_mapper = new ObjectMapper( );
+	}
+
+	/**
+	 * Get the menu tree from the XPage and write it
+	 * 
+	 * @throws IOException
+	 *                     if the tree can't be written
+	 */
+	@Benchmark
+	public void menuTree( ) throws IOException
+	{
+		MenuTreeJson menuTree = _xpageTreeMenuPages.getMenuTree( StandIns.request( Collections.emptyMap( ) ) );
+
+		_mapper.writeValue( OutputStream.nullOutputStream( ), menuTree );
+	}
+}
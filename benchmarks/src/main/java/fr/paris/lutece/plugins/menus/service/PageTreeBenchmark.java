@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.benchmarks.InMemorySiteTreeService;
+import fr.paris.lutece.plugins.menus.benchmarks.Injection;
+import fr.paris.lutece.plugins.menus.benchmarks.SyntheticSite;
+import fr.paris.lutece.plugins.menus.business.MenuItem;
+import fr.paris.lutece.plugins.menus.business.PageInfo;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the page trees behind MainTreeMenuService.getMainMenuItems and
+ * getTreeMenuItems. The services themselves read their depth from the
+ * datastore, so the benchmarks call the PageTreeService they delegate to with
+ * the default depths.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class PageTreeBenchmark
+{
+	private static final int DEPTH_MAIN_MENU = 1;
+	private static final int DEPTH_TREE_MENU = 2;
+
+	@Param( { "100", "5000", "50000" } )
+	public int _nPages;
+
+	@Param( { "4", "16" } )
+	public int _nFanOut;
+
+	private List < PageInfo > _listPages;
+	private SiteTreeService _siteTreeService;
+	private PageTreeService _pageTreeService;
+	private int _nCurrentPageId;
+
+	/**
+	 * Create the site and warm the subtree cache
+	 */
+	@Setup
+	public void setUp( )
+	{
+		_listPages = SyntheticSite.createPages( _nPages, _nFanOut );
+		_siteTreeService = new InMemorySiteTreeService( _listPages );
+		_pageTreeService = newPageTreeService( );
+		_nCurrentPageId = SyntheticSite.getDeepestPageId( _nPages );
+
+		_pageTreeService.getChildMenuTree( SyntheticSite.ROOT_PAGE_ID, DEPTH_MAIN_MENU );
+		_pageTreeService.getPageMenuTree( _nCurrentPageId, DEPTH_TREE_MENU );
+	}
+
+	/**
+	 * @return a page tree service with an empty subtree cache
+	 */
+	private PageTreeService newPageTreeService( )
+	{
+		return Injection.inject( new PageTreeService( ), "_siteTreeService", _siteTreeService );
+	}
+
+	/**
+	 * Build the site tree snapshot from the pages, as after a page change
+	 * 
+	 * @return the snapshot
+	 */
+	@Benchmark
+	public SiteTreeSnapshot buildSnapshot( )
+	{
+		return SiteTreeSnapshot.build( _listPages );
+	}
+
+	/**
+	 * Build the main menu with an empty subtree cache
+	 * 
+	 * @return the root item
+	 */
+	@Benchmark
+	public MenuItem mainMenuCold( )
+	{
+		return newPageTreeService( ).getChildMenuTree( SyntheticSite.ROOT_PAGE_ID, DEPTH_MAIN_MENU );
+	}
+
+	/**
+	 * Build the main menu from the subtree cache
+	 * 
+	 * @return the root item
+	 */
+	@Benchmark
+	public MenuItem mainMenuWarm( )
+	{
+		return _pageTreeService.getChildMenuTree( SyntheticSite.ROOT_PAGE_ID, DEPTH_MAIN_MENU );
+	}
+
+	/**
+	 * Build the tree menu of a deep page with an empty subtree cache
+	 * 
+	 * @return the root item
+	 */
+	@Benchmark
+	public MenuItem treeMenuCold( )
+	{
+		return newPageTreeService( ).getPageMenuTree( _nCurrentPageId, DEPTH_TREE_MENU );
+	}
+
+	/**
+	 * Build the tree menu of a deep page from the subtree cache
+	 * 
+	 * @return the root item
+	 */
+	@Benchmark
+	public MenuItem treeMenuWarm( )
+	{
+		return _pageTreeService.getPageMenuTree( _nCurrentPageId, DEPTH_TREE_MENU );
+	}
+
+	/**
+	 * The full tree of MainTreeMenuAllPagesService.getFullTreeMenuItems
+	 * 
+	 * @return the root item
+	 */
+	@Benchmark
+	public MenuItem fullTreeCold( )
+	{
+		return newPageTreeService( ).getPageMenuTree( SyntheticSite.ROOT_PAGE_ID, Integer.MAX_VALUE );
+	}
+
+	/**
+	 * Build the active trail of a deep page
+	 * 
+	 * @return the active trail
+	 */
+	@Benchmark
+	public ActiveTrail activeTrail( )
+	{
+		return ActiveTrail.build( _siteTreeService.getSnapshot( ), _nCurrentPageId );
+	}
+}
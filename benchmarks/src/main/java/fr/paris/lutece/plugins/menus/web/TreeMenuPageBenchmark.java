@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.web;
+
+import fr.paris.lutece.plugins.menus.benchmarks.InMemoryPortal;
+import fr.paris.lutece.plugins.menus.benchmarks.StandIns;
+import fr.paris.lutece.plugins.menus.benchmarks.SyntheticSite;
+import fr.paris.lutece.plugins.menus.business.Menus;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.plugins.menus.service.PageVisibility;
+import fr.paris.lutece.portal.service.portal.PortalMenuService;
+import fr.paris.lutece.portal.web.constants.Parameters;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of TreeMenuPageInclude.getTreeMenuPage : the tree menu of the
+ * root page streamed to the stylesheet of the portal component by the
+ * XmlTransformerService of the portal, whose XSL cache keeps the compiled
+ * stylesheet. The portal component stylesheet is stored in the database, so a
+ * representative one is served by the stand-in of its DAO.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class TreeMenuPageBenchmark
+{
+	private static final String VISIBILITY_KEY = "roles:";
+	private static final int MENU_ID = 1;
+
+	@Param( { "100", "5000", "50000" } )
+	public int _nPages;
+
+	@Param( { "4", "16" } )
+	public int _nFanOut;
+
+	private SiteTreeSnapshot _snapshot;
+	private TreeMenuPageInclude _treeMenuPageInclude;
+	private Menus _menus;
+	private int _nCurrentPageId;
+
+	/**
+	 * Create the site and the include
+	 * 
+	 * @throws IOException
+	 *                     if the portal can't be set up
+	 */
+	@Setup
+	public void setUp( ) throws IOException
+	{
+		InMemoryPortal portal = new InMemoryPortal( SyntheticSite.createPages( _nPages, _nFanOut ),
+				Collections.emptyList( ), Collections.emptyList( ) );
+		_snapshot = portal.getSiteTreeService( ).getSnapshot( );
+		_treeMenuPageInclude = new TreeMenuPageInclude( );
+		_nCurrentPageId = SyntheticSite.getDeepestPageId( _nPages );
+
+		_menus = new Menus( );
+		_menus.setIdMenu( MENU_ID );
+		_menus.setIdPageRoot( SyntheticSite.ROOT_PAGE_ID );
+	}
+
+	/**
+	 * Lay out the tree menu of an anonymous user, as on a page whose fragment is
+	 * not cached yet
+	 * 
+	 * @return the tree menu
+	 */
+	@Benchmark
+	public String treeMenuPage( )
+	{
+		return _treeMenuPageInclude.getTreeMenuPage( _nCurrentPageId, PortalMenuService.MODE_NORMAL, _menus,
+				StandIns.request( Map.of( Parameters.PAGE_ID, Integer.toString( _nCurrentPageId ) ) ) );
+	}
+
+	/**
+	 * Build the visibility of the pages for a set of roles, as for the first
+	 * request of a user with new roles
+	 * 
+	 * @return the visibility
+	 */
+	@Benchmark
+	public PageVisibility visibilityCold( )
+	{
+		return PageVisibility.build( _snapshot, VISIBILITY_KEY, new BitSet( ) );
+	}
+}
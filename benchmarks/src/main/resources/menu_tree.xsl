@@ -0,0 +1,39 @@
+<?xml version="1.0"?>
+<xsl:stylesheet version="1.0" xmlns:xsl="http://www.w3.org/1999/XSL/Transform">
+
+	<!-- Representative of the menu_tree portal component stylesheet -->
+	<xsl:param name="site-path" select="'jsp/site/Portal.jsp'" />
+
+	<xsl:template match="menu-list">
+		<ul class="tree-menu">
+			<xsl:apply-templates select="menu" />
+		</ul>
+	</xsl:template>
+
+	<xsl:template match="menu">
+		<li>
+			<xsl:if test="page-id = current-page-id">
+				<xsl:attribute name="class">active</xsl:attribute>
+			</xsl:if>
+			<a href="{$site-path}?page_id={page-id}" title="{page-description}">
+				<xsl:value-of select="page-name" disable-output-escaping="yes" />
+			</a>
+			<xsl:apply-templates select="sublevel-menu-list" />
+		</li>
+	</xsl:template>
+
+	<xsl:template match="sublevel-menu-list">
+		<ul>
+			<xsl:apply-templates select="sublevel-menu" />
+		</ul>
+	</xsl:template>
+
+	<xsl:template match="sublevel-menu">
+		<li>
+			<a href="{$site-path}?page_id={page-id}" title="{page-description}">
+				<xsl:value-of select="page-name" disable-output-escaping="yes" />
+			</a>
+		</li>
+	</xsl:template>
+
+</xsl:stylesheet>
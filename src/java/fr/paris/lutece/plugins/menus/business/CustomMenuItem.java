@@ -63,6 +63,9 @@ public class CustomMenuItem implements Serializable
 	private String _strUrl;
 	private CustomMenu _subMenu;
 	private int _nOrder;
+	private String _strResolvedLabel;
+	private String _strHref;
+	private boolean _bHrefRelative;
 
 	// Type constants
 	public static final String TYPE_XPAGE = "menus.constant_custom_menu_item.type.xpage";
@@ -70,8 +73,6 @@ public class CustomMenuItem implements Serializable
 	public static final String TYPE_EXTERNAL_URL = "menus.constant_custom_menu_item.type.externalUrl";
 	public static final String TYPE_MENU = "menus.constant_custom_menu_item.type.submenu";
 
-	private CustomMenuService _customMenuService = CDI.current( ).select( CustomMenuService.class ).get( );
-
 	/**
 	 * Returns the Id
 	 * 
@@ -133,6 +134,7 @@ public class CustomMenuItem implements Serializable
 	public void setSourceItemId( String strSourceItemId )
 	{
 		_strSourceItemId = strSourceItemId;
+		_strResolvedLabel = null;
 	}
 
 	/**
@@ -199,37 +201,39 @@ public class CustomMenuItem implements Serializable
 	}
 
 	/**
-	 * Returns the Label
+	 * Returns the Label. The label of an item whose label is dynamic is the title
+	 * of the referenced page : the title resolved by the CustomMenuService when
+	 * the menus are loaded, or looked up otherwise.
 	 * 
 	 * @return The Label
 	 */
 	public String getLabel( )
 	{
 		// If an item is a page referenced and option labelDynamic is at true
-		if( this._bIsLabelDynamic && ! StringUtils.isBlank( this._strSourceItemId ) )
+		if( _bIsLabelDynamic && ! StringUtils.isBlank( _strSourceItemId ) )
 		{
-
-			String strLabel = _customMenuService.getLabelPageById( this._strSourceItemId );
-
-			if( strLabel != null )
-			{
-				int dashIndex = strLabel.indexOf( "-" );
-				if( dashIndex != - 1 )
-				{
-					strLabel = strLabel.substring( 0, dashIndex );
-				}
-			}
-			else
+			if( _strResolvedLabel != null )
 			{
-				strLabel = "";
+				return _strResolvedLabel;
 			}
 
-			return strLabel;
+			return CDI.current( ).select( CustomMenuService.class ).get( ).getLabelPageById( _strSourceItemId );
 		}
 
 		return _strLabel;
 	}
 
+	/**
+	 * Sets the resolved dynamic Label
+	 * 
+	 * @param strResolvedLabel
+	 *                         The title of the referenced page
+	 */
+	public void setResolvedLabel( String strResolvedLabel )
+	{
+		_strResolvedLabel = strResolvedLabel;
+	}
+
 	/**
 	 * Sets the Label
 	 * 
@@ -305,4 +309,46 @@ public class CustomMenuItem implements Serializable
 		this._subMenu = subMenu;
 
 	}
+
+	/**
+	 * Returns the link of the item, without the site path when it is relative
+	 * 
+	 * @return The link, or null if it has not been resolved
+	 */
+	public String getHref( )
+	{
+		return _strHref;
+	}
+
+	/**
+	 * Sets the link of the item
+	 * 
+	 * @param strHref
+	 *                The link
+	 */
+	public void setHref( String strHref )
+	{
+		_strHref = strHref;
+	}
+
+	/**
+	 * Returns true if the link must be prefixed by the site path
+	 * 
+	 * @return true if the link is relative to the site path
+	 */
+	public boolean isHrefRelative( )
+	{
+		return _bHrefRelative;
+	}
+
+	/**
+	 * Sets if the link must be prefixed by the site path
+	 * 
+	 * @param bHrefRelative
+	 *                      true if the link is relative to the site path
+	 */
+	public void setHrefRelative( boolean bHrefRelative )
+	{
+		_bHrefRelative = bHrefRelative;
+	}
 }
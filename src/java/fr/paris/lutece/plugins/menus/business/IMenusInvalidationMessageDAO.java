@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.business;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * IMenusInvalidationMessageDAO Interface
+ */
+public interface IMenusInvalidationMessageDAO
+{
+	/**
+	 * Insert a new record in the table. The version is generated.
+	 * 
+	 * @param message
+	 *                instance of the MenusInvalidationMessage object to insert
+	 * @param plugin
+	 *                the Plugin
+	 */
+	void insert( MenusInvalidationMessage message, Plugin plugin );
+
+	/**
+	 * Load the messages whose version is greater than a given version
+	 * 
+	 * @param lVersion
+	 *                 the version
+	 * @param plugin
+	 *                 the Plugin
+	 * @return The list of the messages, ordered by version
+	 */
+	List < MenusInvalidationMessage > selectAfterVersion( long lVersion, Plugin plugin );
+
+	/**
+	 * Load the greatest version
+	 * 
+	 * @param plugin
+	 *               the Plugin
+	 * @return The greatest version, 0 if there is no message
+	 */
+	long selectLastVersion( Plugin plugin );
+
+	/**
+	 * Delete the messages created before a date
+	 * 
+	 * @param dateLimit
+	 *                  the date
+	 * @param plugin
+	 *                  the Plugin
+	 */
+	void deleteBefore( Timestamp dateLimit, Plugin plugin );
+}
@@ -41,12 +41,19 @@ import java.util.List;
 
 /**
  * Menu Item
+ * 
+ * <p>
+ * Once {@link #freeze()} has been called, the item, its page information and
+ * its children can't be modified anymore and can safely be shared between
+ * threads, e.g. in a cache.
+ * </p>
  */
 public class MenuItem implements Serializable
 {
 	private static final long serialVersionUID = 2672166049242627079L;
 	private PageInfo _page;
-	private final List < MenuItem > _listItems = new ArrayList < MenuItem >( );
+	private List < MenuItem > _listItems = new ArrayList < MenuItem >( );
+	private boolean _bFrozen;
 
 	/**
 	 * Returns the Page
@@ -66,9 +73,22 @@ public class MenuItem implements Serializable
 	 */
 	public void setPage( Page page )
 	{
+		checkNotFrozen( );
 		_page = new PageInfo( page );
 	}
 
+	/**
+	 * Sets the page information
+	 * 
+	 * @param pageInfo
+	 *                 The page information
+	 */
+	public void setPageInfo( PageInfo pageInfo )
+	{
+		checkNotFrozen( );
+		_page = pageInfo;
+	}
+
 	/**
 	 * Add child
 	 * 
@@ -77,6 +97,7 @@ public class MenuItem implements Serializable
 	 */
 	public void addChild( MenuItem item )
 	{
+		checkNotFrozen( );
 		_listItems.add( item );
 	}
 
@@ -89,4 +110,51 @@ public class MenuItem implements Serializable
 	{
 		return _listItems;
 	}
+
+	/**
+	 * Make this item and all its children unmodifiable
+	 * 
+	 * @return this item
+	 */
+	public MenuItem freeze( )
+	{
+		if( ! _bFrozen )
+		{
+			for( MenuItem item : _listItems )
+			{
+				item.freeze( );
+			}
+
+			if( _page != null )
+			{
+				_page.freeze( );
+			}
+
+			_listItems = List.copyOf( _listItems );
+			_bFrozen = true;
+		}
+
+		return this;
+	}
+
+	/**
+	 * Tells if the item has been frozen
+	 * 
+	 * @return true if the item can't be modified anymore
+	 */
+	public boolean isFrozen( )
+	{
+		return _bFrozen;
+	}
+
+	/**
+	 * Check that the item can still be modified
+	 */
+	private void checkNotFrozen( )
+	{
+		if( _bFrozen )
+		{
+			throw new IllegalStateException( "The menu item is frozen and can't be modified" );
+		}
+	}
 }
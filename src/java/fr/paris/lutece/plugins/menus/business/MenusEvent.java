@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.business;
+
+/**
+ * Event fired by {@link MenusHome} when a menu of the menus_menus table is
+ * created, updated or removed
+ */
+public class MenusEvent
+{
+	// Event types
+	/** A menu was created */
+	public static final int MENUS_CREATED = 1;
+	/** A menu was updated */
+	public static final int MENUS_UPDATED = 2;
+	/** A menu was removed */
+	public static final int MENUS_REMOVED = 3;
+
+	private final int _nEventType;
+	private final int _nIdMenu;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param nEventType
+	 *                   The event type
+	 * @param nIdMenu
+	 *                   The identifier of the menu
+	 */
+	public MenusEvent( int nEventType, int nIdMenu )
+	{
+		_nEventType = nEventType;
+		_nIdMenu = nIdMenu;
+	}
+
+	/**
+	 * Returns the event type
+	 * 
+	 * @return The event type
+	 */
+	public int getEventType( )
+	{
+		return _nEventType;
+	}
+
+	/**
+	 * Returns the identifier of the menu
+	 * 
+	 * @return The identifier of the menu
+	 */
+	public int getIdMenu( )
+	{
+		return _nIdMenu;
+	}
+}
@@ -70,6 +70,7 @@ public final class MenusHome
 	public static Menus create( Menus menus, Plugin plugin )
 	{
 		_dao.insert( menus, plugin );
+		fireEvent( MenusEvent.MENUS_CREATED, menus.getIdMenu( ) );
 
 		return menus;
 	}
@@ -85,6 +86,7 @@ public final class MenusHome
 	public static Menus create( Menus menus )
 	{
 		_dao.insert( menus, _plugin );
+		fireEvent( MenusEvent.MENUS_CREATED, menus.getIdMenu( ) );
 
 		return menus;
 	}
@@ -101,6 +103,7 @@ public final class MenusHome
 	public static Menus update( Menus menus, Plugin plugin )
 	{
 		_dao.store( menus, plugin );
+		fireEvent( MenusEvent.MENUS_UPDATED, menus.getIdMenu( ) );
 
 		return menus;
 	}
@@ -115,6 +118,7 @@ public final class MenusHome
 	public static Menus update( Menus menus )
 	{
 		_dao.store( menus, _plugin );
+		fireEvent( MenusEvent.MENUS_UPDATED, menus.getIdMenu( ) );
 
 		return menus;
 	}
@@ -130,6 +134,7 @@ public final class MenusHome
 	public static void remove( int nMenusId, Plugin plugin )
 	{
 		_dao.delete( nMenusId, plugin );
+		fireEvent( MenusEvent.MENUS_REMOVED, nMenusId );
 	}
 
 	/**
@@ -141,6 +146,7 @@ public final class MenusHome
 	public static void remove( int nMenusId )
 	{
 		_dao.delete( nMenusId, _plugin );
+		fireEvent( MenusEvent.MENUS_REMOVED, nMenusId );
 	}
 
 	// /////////////////////////////////////////////////////////////////////////
@@ -217,4 +223,17 @@ public final class MenusHome
 	{
 		return _dao.selectNbMenus( _plugin );
 	}
+
+	/**
+	 * Notify the observers of the menus writes
+	 * 
+	 * @param nEventType
+	 *                   The event type
+	 * @param nIdMenu
+	 *                   The identifier of the menu
+	 */
+	private static void fireEvent( int nEventType, int nIdMenu )
+	{
+		CDI.current( ).getBeanManager( ).getEvent( ).fire( new MenusEvent( nEventType, nIdMenu ) );
+	}
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.business;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * This is the business class for the object MenusInvalidationMessage : a
+ * versioned invalidation of the menu caches, published by the node where the
+ * data changed for the other nodes of the cluster
+ */
+public class MenusInvalidationMessage implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	// Scope constants
+	/** A page changed : its ancestors and descendants are evicted */
+	public static final String SCOPE_PAGE = "page";
+	/** The pages changed : the menu trees are reset */
+	public static final String SCOPE_SITE = "site";
+	/** The depth of the main menu changed */
+	public static final String SCOPE_MAIN_MENU = "main_menu";
+	/** The depth of the tree menus changed */
+	public static final String SCOPE_TREE_MENUS = "tree_menus";
+	/** The depth of the all pages tree menus changed */
+	public static final String SCOPE_ALL_PAGES_MENUS = "all_pages_menus";
+	/** The custom menus or their items changed */
+	public static final String SCOPE_CUSTOM_MENUS = "custom_menus";
+	/** The tree menus of the menus_menus table changed */
+	public static final String SCOPE_MENUS = "menus";
+	/** The portal pages embedding the menus must be rendered again */
+	public static final String SCOPE_PORTAL_PAGES = "portal_pages";
+
+	/** The page id of the messages not related to a page */
+	public static final int NO_PAGE = - 1;
+
+	// Variables declarations
+	private long _lVersion;
+	private String _strScope;
+	private int _nPageId = NO_PAGE;
+	private String _strOrigin;
+	private Timestamp _dateCreation;
+
+	/**
+	 * Returns the version, which orders the messages
+	 * 
+	 * @return The version
+	 */
+	public long getVersion( )
+	{
+		return _lVersion;
+	}
+
+	/**
+	 * Sets the version
+	 * 
+	 * @param lVersion
+	 *                 The version
+	 */
+	public void setVersion( long lVersion )
+	{
+		_lVersion = lVersion;
+	}
+
+	/**
+	 * Returns the scope of the invalidation
+	 * 
+	 * @return The scope
+	 */
+	public String getScope( )
+	{
+		return _strScope;
+	}
+
+	/**
+	 * Sets the scope of the invalidation
+	 * 
+	 * @param strScope
+	 *                 The scope
+	 */
+	public void setScope( String strScope )
+	{
+		_strScope = strScope;
+	}
+
+	/**
+	 * Returns the changed page id
+	 * 
+	 * @return The page id, or {@link #NO_PAGE}
+	 */
+	public int getPageId( )
+	{
+		return _nPageId;
+	}
+
+	/**
+	 * Sets the changed page id
+	 * 
+	 * @param nPageId
+	 *                The page id
+	 */
+	public void setPageId( int nPageId )
+	{
+		_nPageId = nPageId;
+	}
+
+	/**
+	 * Returns the identifier of the node which published the message
+	 * 
+	 * @return The node identifier
+	 */
+	public String getOrigin( )
+	{
+		return _strOrigin;
+	}
+
+	/**
+	 * Sets the identifier of the node which published the message
+	 * 
+	 * @param strOrigin
+	 *                  The node identifier
+	 */
+	public void setOrigin( String strOrigin )
+	{
+		_strOrigin = strOrigin;
+	}
+
+	/**
+	 * Returns the creation date
+	 * 
+	 * @return The creation date
+	 */
+	public Timestamp getDateCreation( )
+	{
+		return _dateCreation;
+	}
+
+	/**
+	 * Sets the creation date
+	 * 
+	 * @param dateCreation
+	 *                     The creation date
+	 */
+	public void setDateCreation( Timestamp dateCreation )
+	{
+		_dateCreation = dateCreation;
+	}
+}
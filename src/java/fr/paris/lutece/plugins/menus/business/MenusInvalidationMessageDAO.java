@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.business;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.util.sql.DAOUtil;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class provides Data Access methods for MenusInvalidationMessage objects
+ */
+@ApplicationScoped
+public final class MenusInvalidationMessageDAO implements IMenusInvalidationMessageDAO
+{
+	// Constants
+	private static final String SQL_QUERY_INSERT = "INSERT INTO menus_cache_version ( scope, id_page, origin, date_creation ) VALUES ( ?, ?, ?, ? )";
+	private static final String SQL_QUERY_SELECT_AFTER_VERSION = "SELECT id_version, scope, id_page, origin, date_creation FROM menus_cache_version WHERE id_version > ? ORDER BY id_version";
+	private static final String SQL_QUERY_SELECT_LAST_VERSION = "SELECT max(id_version) FROM menus_cache_version";
+	private static final String SQL_QUERY_DELETE_BEFORE = "DELETE FROM menus_cache_version WHERE date_creation < ?";
+
+	/**
+	 * {@inheritDoc }
+	 */
+	@Override
+	public void insert( MenusInvalidationMessage message, Plugin plugin )
+	{
+		try( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT, Statement.RETURN_GENERATED_KEYS, plugin ) )
+		{
+			int nIndex = 1;
+			daoUtil.setString( nIndex ++ , message.getScope( ) );
+			daoUtil.setInt( nIndex ++ , message.getPageId( ) );
+			daoUtil.setString( nIndex ++ , message.getOrigin( ) );
+			daoUtil.setTimestamp( nIndex ++ , message.getDateCreation( ) );
+
+			daoUtil.executeUpdate( );
+			if( daoUtil.nextGeneratedKey( ) )
+			{
+				message.setVersion( daoUtil.getGeneratedKeyLong( 1 ) );
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc }
+	 */
+	@Override
+	public List < MenusInvalidationMessage > selectAfterVersion( long lVersion, Plugin plugin )
+	{
+		List < MenusInvalidationMessage > listMessages = new ArrayList <>( );
+
+		try( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_AFTER_VERSION, plugin ) )
+		{
+			daoUtil.setLong( 1, lVersion );
+			daoUtil.executeQuery( );
+
+			while( daoUtil.next( ) )
+			{
+				MenusInvalidationMessage message = new MenusInvalidationMessage( );
+				int nIndex = 1;
+
+				message.setVersion( daoUtil.getLong( nIndex ++ ) );
+				message.setScope( daoUtil.getString( nIndex ++ ) );
+				message.setPageId( daoUtil.getInt( nIndex ++ ) );
+				message.setOrigin( daoUtil.getString( nIndex ++ ) );
+				message.setDateCreation( daoUtil.getTimestamp( nIndex ++ ) );
+
+				listMessages.add( message );
+			}
+		}
+
+		return listMessages;
+	}
+
+	/**
+	 * {@inheritDoc }
+	 */
+	@Override
+	public long selectLastVersion( Plugin plugin )
+	{
+		long lVersion = 0;
+
+		try( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_LAST_VERSION, plugin ) )
+		{
+			daoUtil.executeQuery( );
+
+			if( daoUtil.next( ) )
+			{
+				lVersion = daoUtil.getLong( 1 );
+			}
+		}
+
+		return lVersion;
+	}
+
+	/**
+	 * {@inheritDoc }
+	 */
+	@Override
+	public void deleteBefore( Timestamp dateLimit, Plugin plugin )
+	{
+		try( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_BEFORE, plugin ) )
+		{
+			daoUtil.setTimestamp( 1, dateLimit );
+			daoUtil.executeUpdate( );
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.business;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.plugin.PluginService;
+import jakarta.enterprise.inject.spi.CDI;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * This class provides instances management methods (create, find, ...) for
+ * MenusInvalidationMessage objects
+ */
+public final class MenusInvalidationMessageHome
+{
+	// Static variable pointed at the DAO instance
+	private static IMenusInvalidationMessageDAO _dao = CDI.current( ).select( IMenusInvalidationMessageDAO.class )
+			.get( );
+
+	private static Plugin _plugin = PluginService.getPlugin( "menus" );
+
+	/**
+	 * Private constructor - this class need not be instantiated
+	 */
+	private MenusInvalidationMessageHome( )
+	{
+	}
+
+	/**
+	 * Create an instance of the MenusInvalidationMessage class
+	 * 
+	 * @param message
+	 *                The instance of the MenusInvalidationMessage to store
+	 * @return The message with its version
+	 */
+	public static MenusInvalidationMessage create( MenusInvalidationMessage message )
+	{
+		_dao.insert( message, _plugin );
+
+		return message;
+	}
+
+	/**
+	 * Load the messages published after a version
+	 * 
+	 * @param lVersion
+	 *                 The version
+	 * @return the list of the messages, ordered by version
+	 */
+	public static List < MenusInvalidationMessage > findAfterVersion( long lVersion )
+	{
+		return _dao.selectAfterVersion( lVersion, _plugin );
+	}
+
+	/**
+	 * Load the version of the last message
+	 * 
+	 * @return the version, 0 if there is no message
+	 */
+	public static long findLastVersion( )
+	{
+		return _dao.selectLastVersion( _plugin );
+	}
+
+	/**
+	 * Remove the messages created before a date
+	 * 
+	 * @param dateLimit
+	 *                  The date
+	 */
+	public static void removeBefore( Timestamp dateLimit )
+	{
+		_dao.deleteBefore( dateLimit, _plugin );
+	}
+}
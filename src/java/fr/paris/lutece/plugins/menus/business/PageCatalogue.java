@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.business;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable catalogue of the pages of the site, used to pick pages in the back
+ * office.
+ * 
+ * <p>
+ * The pages are listed in tree order. Their name, description and id are split
+ * into lower case terms, which are kept in a sorted array so that the pages
+ * whose terms start with a searched word are found by binary search.
+ * </p>
+ */
+public final class PageCatalogue
+{
+	private static final String TERM_SEPARATORS = "[^\\p{L}\\p{N}]+";
+	private static final String LABEL_SEPARATOR = " - ";
+
+	private final SiteTreeSnapshot _snapshot;
+	private final int [ ] _entries;
+	private final String [ ] _terms;
+	private final int [ ] _termEntries;
+
+	/**
+	 * Private constructor - use {@link #build(SiteTreeSnapshot, int)}
+	 * 
+	 * @param snapshot
+	 *                    the snapshot of the site tree
+	 * @param entries
+	 *                    the snapshot indexes of the pages, in tree order
+	 * @param terms
+	 *                    the sorted terms
+	 * @param termEntries
+	 *                    the position in the entries of the page of each term
+	 */
+	private PageCatalogue( SiteTreeSnapshot snapshot, int [ ] entries, String [ ] terms, int [ ] termEntries )
+	{
+		_snapshot = snapshot;
+		_entries = entries;
+		_terms = terms;
+		_termEntries = termEntries;
+	}
+
+	/**
+	 * Build the catalogue of the pages under a root page
+	 * 
+	 * @param snapshot
+	 *                 the snapshot of the site tree
+	 * @param nRootId
+	 *                 the root page id
+	 * @return the catalogue
+	 */
+	public static PageCatalogue build( SiteTreeSnapshot snapshot, int nRootId )
+	{
+		List < Integer > listEntries = new ArrayList <>( snapshot.size( ) );
+		int nRootIndex = snapshot.indexOf( nRootId );
+
+		if( nRootIndex != SiteTreeSnapshot.NONE )
+		{
+			addEntries( snapshot, nRootIndex, listEntries );
+		}
+
+		int [ ] entries = listEntries.stream( ).mapToInt( Integer::intValue ).toArray( );
+		List < Posting > listPostings = new ArrayList <>( );
+
+		for( int nEntry = 0 ; nEntry < entries.length ; nEntry ++ )
+		{
+			int nIndex = entries [nEntry];
+			Set < String > setTerms = new LinkedHashSet <>( );
+			addTerms( snapshot.getName( nIndex ), setTerms );
+			addTerms( snapshot.getDescription( nIndex ), setTerms );
+			setTerms.add( String.valueOf( snapshot.getPageId( nIndex ) ) );
+
+			for( String strTerm : setTerms )
+			{
+				listPostings.add( new Posting( strTerm, nEntry ) );
+			}
+		}
+
+		listPostings.sort( Comparator.comparing( ( Posting p ) -> p._strTerm ).thenComparingInt( p -> p._nEntry ) );
+
+		String [ ] terms = new String [ listPostings.size( ) ];
+		int [ ] termEntries = new int [ listPostings.size( ) ];
+
+		for( int i = 0 ; i < terms.length ; i ++ )
+		{
+			terms [i] = listPostings.get( i )._strTerm;
+			termEntries [i] = listPostings.get( i )._nEntry;
+		}
+
+		return new PageCatalogue( snapshot, entries, terms, termEntries );
+	}
+
+	/**
+	 * Returns the snapshot the catalogue was built from
+	 * 
+	 * @return the snapshot
+	 */
+	public SiteTreeSnapshot getSnapshot( )
+	{
+		return _snapshot;
+	}
+
+	/**
+	 * Returns the number of pages of the catalogue
+	 * 
+	 * @return the number of pages
+	 */
+	public int size( )
+	{
+		return _entries.length;
+	}
+
+	/**
+	 * Returns the id of a page of the catalogue
+	 * 
+	 * @param nEntry
+	 *               the position of the page in the catalogue
+	 * @return the page id
+	 */
+	public int getPageId( int nEntry )
+	{
+		return _snapshot.getPageId( _entries [nEntry] );
+	}
+
+	/**
+	 * Returns the label of a page of the catalogue : its name and its description
+	 * 
+	 * @param nEntry
+	 *               the position of the page in the catalogue
+	 * @return the label
+	 */
+	public String getLabel( int nEntry )
+	{
+		int nIndex = _entries [nEntry];
+		String strName = _snapshot.getName( nIndex ) != null ? _snapshot.getName( nIndex ) : "";
+		String strDescription = _snapshot.getDescription( nIndex ) != null ? _snapshot.getDescription( nIndex ) : "";
+
+		return strName + LABEL_SEPARATOR + strDescription;
+	}
+
+	/**
+	 * Search the pages having a term starting with one of the words of the
+	 * criteria. The pages matching the most words come first, then the pages
+	 * are in tree order. A blank criteria matches all the pages.
+	 * 
+	 * @param strCriteria
+	 *                    the searched words, separated by spaces
+	 * @return the positions of the matching pages in the catalogue
+	 */
+	public int [ ] search( String strCriteria )
+	{
+		Set < String > setWords = new LinkedHashSet <>( );
+		addTerms( strCriteria, setWords );
+
+		if( setWords.isEmpty( ) )
+		{
+			int [ ] all = new int [ _entries.length ];
+			Arrays.setAll( all, i -> i );
+
+			return all;
+		}
+
+		int [ ] scores = new int [ _entries.length ];
+		int [ ] lastWords = new int [ _entries.length ];
+		int nMatches = 0;
+		int nWord = 0;
+
+		for( String strWord : setWords )
+		{
+			nWord ++;
+
+			for( int i = lowerBound( strWord ) ; i < _terms.length && _terms [i].startsWith( strWord ) ; i ++ )
+			{
+				int nEntry = _termEntries [i];
+
+				// Count each word once per page, even if several terms of the page start with it
+				if( lastWords [nEntry] != nWord )
+				{
+					lastWords [nEntry] = nWord;
+
+					if( scores [nEntry] == 0 )
+					{
+						nMatches ++;
+					}
+
+					scores [nEntry] ++;
+				}
+			}
+		}
+
+		Integer [ ] matches = new Integer [ nMatches ];
+		int nPosition = 0;
+
+		for( int nEntry = 0 ; nEntry < scores.length ; nEntry ++ )
+		{
+			if( scores [nEntry] > 0 )
+			{
+				matches [nPosition ++] = nEntry;
+			}
+		}
+
+		// Stable sort : pages with the same score stay in tree order
+		Arrays.sort( matches, ( a, b ) -> Integer.compare( scores [b], scores [a] ) );
+
+		return Arrays.stream( matches ).mapToInt( Integer::intValue ).toArray( );
+	}
+
+	/**
+	 * Find the position of the first term greater than or equal to a word
+	 * 
+	 * @param strWord
+	 *                the word
+	 * @return the position
+	 */
+	private int lowerBound( String strWord )
+	{
+		int nLow = 0;
+		int nHigh = _terms.length;
+
+		while( nLow < nHigh )
+		{
+			int nMiddle = ( nLow + nHigh ) >>> 1;
+
+			if( _terms [nMiddle].compareTo( strWord ) < 0 )
+			{
+				nLow = nMiddle + 1;
+			}
+			else
+			{
+				nHigh = nMiddle;
+			}
+		}
+
+		return nLow;
+	}
+
+	/**
+	 * Add a page and its descendants to the entries, in tree order
+	 * 
+	 * @param snapshot
+	 *                    the snapshot of the site tree
+	 * @param nIndex
+	 *                    the snapshot index of the page
+	 * @param listEntries
+	 *                    the entries to fill
+	 */
+	private static void addEntries( SiteTreeSnapshot snapshot, int nIndex, List < Integer > listEntries )
+	{
+		listEntries.add( nIndex );
+
+		for( int nChild = snapshot.getFirstChild( nIndex ) ; nChild != SiteTreeSnapshot.NONE ;
+				nChild = snapshot.getNextSibling( nChild ) )
+		{
+			addEntries( snapshot, nChild, listEntries );
+		}
+	}
+
+	/**
+	 * Split a text into lower case terms
+	 * 
+	 * @param strText
+	 *                 the text, may be null
+	 * @param setTerms
+	 *                 the set to fill
+	 */
+	private static void addTerms( String strText, Set < String > setTerms )
+	{
+		if( strText == null )
+		{
+			return;
+		}
+
+		for( String strTerm : strText.toLowerCase( Locale.ROOT ).split( TERM_SEPARATORS ) )
+		{
+			if( ! strTerm.isEmpty( ) )
+			{
+				setTerms.add( strTerm );
+			}
+		}
+	}
+
+	/**
+	 * A term of a page
+	 */
+	private static final class Posting
+	{
+		private final String _strTerm;
+		private final int _nEntry;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param strTerm
+		 *                the term
+		 * @param nEntry
+		 *                the position of the page in the catalogue
+		 */
+		Posting( String strTerm, int nEntry )
+		{
+			_strTerm = strTerm;
+			_nEntry = nEntry;
+		}
+	}
+}
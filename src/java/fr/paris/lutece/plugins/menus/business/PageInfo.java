@@ -39,6 +39,13 @@ import fr.paris.lutece.portal.business.page.Page;
 
 /**
  * PageInfo
+ * 
+ * <p>
+ * Once {@link #freeze()} has been called, the page information can't be
+ * modified anymore, so that a single instance can be shared by all the cached
+ * menu trees and read by concurrent threads. {@link #copy()} returns a
+ * modifiable copy.
+ * </p>
  */
 public class PageInfo implements Serializable
 {
@@ -47,6 +54,9 @@ public class PageInfo implements Serializable
 	private String _strName;
 	private String _strDescription;
 	private int _nParentPageId;
+	private final int _nOrder;
+	private final String _strRole;
+	private boolean _bFrozen;
 
 	/**
 	 * Contructor
@@ -60,6 +70,34 @@ public class PageInfo implements Serializable
 		_strName = page.getName( );
 		_strDescription = page.getDescription( );
 		_nParentPageId = page.getParentPageId( );
+		_nOrder = page.getOrder( );
+		_strRole = page.getRole( );
+	}
+
+	/**
+	 * Contructor
+	 * 
+	 * @param nId
+	 *                       the page id
+	 * @param nParentPageId
+	 *                       the parent page id
+	 * @param strName
+	 *                       the page name
+	 * @param strDescription
+	 *                       the page description
+	 * @param nOrder
+	 *                       the order of the page among its siblings
+	 * @param strRole
+	 *                       the role required to see the page
+	 */
+	public PageInfo( int nId, int nParentPageId, String strName, String strDescription, int nOrder, String strRole )
+	{
+		_nId = nId;
+		_nParentPageId = nParentPageId;
+		_strName = strName;
+		_strDescription = strDescription;
+		_nOrder = nOrder;
+		_strRole = strRole;
 	}
 
 	/**
@@ -73,9 +111,13 @@ public class PageInfo implements Serializable
 	/**
 	 * @param id
 	 *           the id to set
+	 * @deprecated the page information of the menu trees is shared, modify a
+	 *             {@link #copy()} instead
 	 */
+	@Deprecated
 	public void setId( int id )
 	{
+		checkNotFrozen( );
 		_nId = id;
 	}
 
@@ -90,9 +132,13 @@ public class PageInfo implements Serializable
 	/**
 	 * @param name
 	 *             the name to set
+	 * @deprecated the page information of the menu trees is shared, modify a
+	 *             {@link #copy()} instead
 	 */
+	@Deprecated
 	public void setName( String name )
 	{
+		checkNotFrozen( );
 		_strName = name;
 	}
 
@@ -107,9 +153,13 @@ public class PageInfo implements Serializable
 	/**
 	 * @param description
 	 *                    the description to set
+	 * @deprecated the page information of the menu trees is shared, modify a
+	 *             {@link #copy()} instead
 	 */
+	@Deprecated
 	public void setDescription( String description )
 	{
+		checkNotFrozen( );
 		_strDescription = description;
 	}
 
@@ -124,10 +174,72 @@ public class PageInfo implements Serializable
 	/**
 	 * @param nParentPageId
 	 *                      the id to set
+	 * @deprecated the page information of the menu trees is shared, modify a
+	 *             {@link #copy()} instead
 	 */
+	@Deprecated
 	public void setParentPageId( int nParentPageId )
 	{
+		checkNotFrozen( );
 		_nParentPageId = nParentPageId;
 	}
 
+	/**
+	 * @return the order of the page among its siblings
+	 */
+	public int getOrder( )
+	{
+		return _nOrder;
+	}
+
+	/**
+	 * @return the role required to see the page
+	 */
+	public String getRole( )
+	{
+		return _strRole;
+	}
+
+	/**
+	 * Returns a modifiable copy of this page information
+	 * 
+	 * @return the copy
+	 */
+	public PageInfo copy( )
+	{
+		return new PageInfo( _nId, _nParentPageId, _strName, _strDescription, _nOrder, _strRole );
+	}
+
+	/**
+	 * Make this page information unmodifiable
+	 * 
+	 * @return this page information
+	 */
+	public PageInfo freeze( )
+	{
+		_bFrozen = true;
+
+		return this;
+	}
+
+	/**
+	 * Tells if the page information has been frozen
+	 * 
+	 * @return true if the page information can't be modified anymore
+	 */
+	public boolean isFrozen( )
+	{
+		return _bFrozen;
+	}
+
+	/**
+	 * Check that the page information can still be modified
+	 */
+	private void checkNotFrozen( )
+	{
+		if( _bFrozen )
+		{
+			throw new IllegalStateException( "The page information is frozen and can't be modified" );
+		}
+	}
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.business;
+
+import fr.paris.lutece.util.sql.DAOUtil;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class provides Data Access methods to read the page hierarchy of the
+ * site. It only reads the columns needed by the menus, from the core page table.
+ */
+@ApplicationScoped
+public final class PageTreeDAO implements IPageTreeDAO
+{
+	// Constants
+	private static final String SQL_QUERY_SELECTALL = "SELECT id_page, id_parent, name, description, page_order, role FROM core_page ORDER BY id_parent, page_order, id_page";
+
+	/**
+	 * {@inheritDoc }
+	 */
+	@Override
+	public List < PageInfo > selectAllPages( )
+	{
+		List < PageInfo > listPages = new ArrayList <>( );
+
+		try( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECTALL ) )
+		{
+			daoUtil.executeQuery( );
+
+			while( daoUtil.next( ) )
+			{
+				int nIndex = 1;
+				int nId = daoUtil.getInt( nIndex ++ );
+				int nParentPageId = daoUtil.getInt( nIndex ++ );
+				String strName = daoUtil.getString( nIndex ++ );
+				String strDescription = daoUtil.getString( nIndex ++ );
+				int nOrder = daoUtil.getInt( nIndex ++ );
+				String strRole = daoUtil.getString( nIndex ++ );
+
+				listPages.add( new PageInfo( nId, nParentPageId, strName, strDescription, nOrder, strRole ) );
+			}
+		}
+
+		return listPages;
+	}
+}
@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.business;
+
+import fr.paris.lutece.portal.business.page.Page;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable, flattened view of the page hierarchy of the site.
+ * 
+ * <p>
+ * Pages are identified by an index in the snapshot arrays. The hierarchy is
+ * stored as parent, first-child and next-sibling index arrays, so walking the
+ * tree does not allocate. The children of a page are linked in page order. The
+ * roles restricting the pages are numbered, so that the visibility of a page for
+ * a set of roles is a bit lookup. The depth and the top level ancestor of each
+ * page are precomputed, so that locating a page in the tree doesn't walk it.
+ * </p>
+ */
+public final class SiteTreeSnapshot
+{
+	/** Value returned for a missing page, parent, child or sibling */
+	public static final int NONE = - 1;
+
+	private final int [ ] _pageIds;
+	private final int [ ] _parents;
+	private final int [ ] _firstChilds;
+	private final int [ ] _nextSiblings;
+	private final int [ ] _orders;
+	private final String [ ] _names;
+	private final String [ ] _descriptions;
+	private final String [ ] _roles;
+	private final int [ ] _roleIds;
+	private final int [ ] _depths;
+	private final int [ ] _topLevelAncestors;
+	private String [ ] _restrictingRoles;
+	private final int [ ] _indexByPageId;
+
+	/**
+	 * Private constructor - use {@link #build(List)}
+	 * 
+	 * @param nSize
+	 *                    the number of pages
+	 * @param nMaxPageId
+	 *                    the highest page id
+	 */
+	private SiteTreeSnapshot( int nSize, int nMaxPageId )
+	{
+		_pageIds = new int [ nSize ];
+		_parents = new int [ nSize ];
+		_firstChilds = new int [ nSize ];
+		_nextSiblings = new int [ nSize ];
+		_orders = new int [ nSize ];
+		_names = new String [ nSize ];
+		_descriptions = new String [ nSize ];
+		_roles = new String [ nSize ];
+		_roleIds = new int [ nSize ];
+		_depths = new int [ nSize ];
+		_topLevelAncestors = new int [ nSize ];
+		_indexByPageId = new int [ nMaxPageId + 1 ];
+		Arrays.fill( _parents, NONE );
+		Arrays.fill( _firstChilds, NONE );
+		Arrays.fill( _nextSiblings, NONE );
+		Arrays.fill( _indexByPageId, NONE );
+	}
+
+	/**
+	 * Build a snapshot from the list of the pages
+	 * 
+	 * @param listPages
+	 *                  the pages, sorted by parent page and then by order
+	 * @return the snapshot
+	 */
+	public static SiteTreeSnapshot build( List < PageInfo > listPages )
+	{
+		int nMaxPageId = 0;
+
+		for( PageInfo page : listPages )
+		{
+			nMaxPageId = Math.max( nMaxPageId, page.getId( ) );
+		}
+
+		SiteTreeSnapshot snapshot = new SiteTreeSnapshot( listPages.size( ), nMaxPageId );
+
+		for( int i = 0 ; i < listPages.size( ) ; i ++ )
+		{
+			PageInfo page = listPages.get( i );
+			snapshot._pageIds [i] = page.getId( );
+			snapshot._orders [i] = page.getOrder( );
+			snapshot._names [i] = intern( page.getName( ) );
+			snapshot._descriptions [i] = intern( page.getDescription( ) );
+			snapshot._roles [i] = intern( page.getRole( ) );
+			snapshot._indexByPageId [page.getId( )] = i;
+		}
+
+		snapshot.indexRoles( );
+
+		// Link the children in reverse order so that each list ends up in page order
+		for( int i = listPages.size( ) - 1 ; i >= 0 ; i -- )
+		{
+			PageInfo page = listPages.get( i );
+			int nParent = snapshot.indexOf( page.getParentPageId( ) );
+
+			if( nParent != NONE && nParent != i )
+			{
+				snapshot._parents [i] = nParent;
+				snapshot._nextSiblings [i] = snapshot._firstChilds [nParent];
+				snapshot._firstChilds [nParent] = i;
+			}
+		}
+
+		snapshot.indexAncestors( );
+
+		return snapshot;
+	}
+
+	/**
+	 * Returns the number of pages
+	 * 
+	 * @return the number of pages
+	 */
+	public int size( )
+	{
+		return _pageIds.length;
+	}
+
+	/**
+	 * Returns the index of a page
+	 * 
+	 * @param nPageId
+	 *                the page id
+	 * @return the index of the page, or {@link #NONE} if the page doesn't exist
+	 */
+	public int indexOf( int nPageId )
+	{
+		if( nPageId < 0 || nPageId >= _indexByPageId.length )
+		{
+			return NONE;
+		}
+
+		return _indexByPageId [nPageId];
+	}
+
+	/**
+	 * @param nIndex
+	 *               the page index
+	 * @return the page id
+	 */
+	public int getPageId( int nIndex )
+	{
+		return _pageIds [nIndex];
+	}
+
+	/**
+	 * @param nIndex
+	 *               the page index
+	 * @return the index of the parent page, or {@link #NONE}
+	 */
+	public int getParent( int nIndex )
+	{
+		return _parents [nIndex];
+	}
+
+	/**
+	 * @param nIndex
+	 *               the page index
+	 * @return the index of the first child page, or {@link #NONE}
+	 */
+	public int getFirstChild( int nIndex )
+	{
+		return _firstChilds [nIndex];
+	}
+
+	/**
+	 * @param nIndex
+	 *               the page index
+	 * @return the index of the next sibling page, or {@link #NONE}
+	 */
+	public int getNextSibling( int nIndex )
+	{
+		return _nextSiblings [nIndex];
+	}
+
+	/**
+	 * @param nIndex
+	 *               the page index
+	 * @return the order of the page among its siblings
+	 */
+	public int getOrder( int nIndex )
+	{
+		return _orders [nIndex];
+	}
+
+	/**
+	 * @param nIndex
+	 *               the page index
+	 * @return the page name
+	 */
+	public String getName( int nIndex )
+	{
+		return _names [nIndex];
+	}
+
+	/**
+	 * @param nIndex
+	 *               the page index
+	 * @return the page description
+	 */
+	public String getDescription( int nIndex )
+	{
+		return _descriptions [nIndex];
+	}
+
+	/**
+	 * @param nIndex
+	 *               the page index
+	 * @return the role required to see the page
+	 */
+	public String getRole( int nIndex )
+	{
+		return _roles [nIndex];
+	}
+
+	/**
+	 * @param nIndex
+	 *               the page index
+	 * @return the number of the role restricting the page, or {@link #NONE} if
+	 *         the page is visible by everybody
+	 */
+	public int getRoleId( int nIndex )
+	{
+		return _roleIds [nIndex];
+	}
+
+	/**
+	 * @return the number of distinct roles restricting pages
+	 */
+	public int getRestrictingRoleCount( )
+	{
+		return _restrictingRoles.length;
+	}
+
+	/**
+	 * @param nRoleId
+	 *                the number of the role
+	 * @return the role, the roles being numbered in alphabetical order
+	 */
+	public String getRestrictingRole( int nRoleId )
+	{
+		return _restrictingRoles [nRoleId];
+	}
+
+	/**
+	 * @param nIndex
+	 *               the page index
+	 * @return the depth of the page, 0 for a page without parent
+	 */
+	public int getDepth( int nIndex )
+	{
+		return _depths [nIndex];
+	}
+
+	/**
+	 * Returns the ancestor of a page at depth 1, i.e. the child of a page without
+	 * parent. It is the page itself for a page at depth 1.
+	 * 
+	 * @param nIndex
+	 *               the page index
+	 * @return the index of the ancestor, or {@link #NONE} for a page without
+	 *         parent
+	 */
+	public int getTopLevelAncestor( int nIndex )
+	{
+		return _topLevelAncestors [nIndex];
+	}
+
+	/**
+	 * Returns the path from the page without parent down to a page
+	 * 
+	 * @param nIndex
+	 *               the page index
+	 * @return the indexes of the ancestors of the page, then of the page
+	 */
+	public int [ ] getPath( int nIndex )
+	{
+		int [ ] path = new int [ _depths [nIndex] + 1 ];
+
+		for( int i = path.length - 1, nCurrent = nIndex ; i >= 0 ; i -- , nCurrent = _parents [nCurrent] )
+		{
+			path [i] = nCurrent;
+		}
+
+		return path;
+	}
+
+	/**
+	 * Compute the depth and the top level ancestor of each page
+	 */
+	private void indexAncestors( )
+	{
+		Arrays.fill( _depths, NONE );
+
+		for( int i = 0 ; i < _pageIds.length ; i ++ )
+		{
+			// Find the closest ancestor already indexed, then index the pages down to this one
+			int nTop = i;
+
+			// The number of steps is bounded in case the parent links loop
+			for( int nSteps = 0 ; _depths [nTop] == NONE && _parents [nTop] != NONE && nSteps < _pageIds.length ;
+					nSteps ++ )
+			{
+				nTop = _parents [nTop];
+			}
+
+			if( _depths [nTop] == NONE )
+			{
+				_depths [nTop] = 0;
+				_topLevelAncestors [nTop] = NONE;
+			}
+
+			indexPath( i, nTop );
+		}
+	}
+
+	/**
+	 * Index the pages from an indexed ancestor down to a page
+	 * 
+	 * @param nIndex
+	 *                  the page index
+	 * @param nAncestor
+	 *                  the index of an indexed ancestor of the page
+	 */
+	private void indexPath( int nIndex, int nAncestor )
+	{
+		if( nIndex == nAncestor )
+		{
+			return;
+		}
+
+		int nParent = _parents [nIndex];
+		indexPath( nParent, nAncestor );
+		_depths [nIndex] = _depths [nParent] + 1;
+		_topLevelAncestors [nIndex] = ( _depths [nIndex] == 1 ) ? nIndex : _topLevelAncestors [nParent];
+	}
+
+	/**
+	 * Number the roles restricting pages in alphabetical order
+	 */
+	private void indexRoles( )
+	{
+		TreeSet < String > setRoles = new TreeSet <>( );
+
+		for( String strRole : _roles )
+		{
+			if( isRestricting( strRole ) )
+			{
+				setRoles.add( strRole );
+			}
+		}
+
+		_restrictingRoles = setRoles.toArray( new String [ 0 ] );
+
+		for( int i = 0 ; i < _roles.length ; i ++ )
+		{
+			_roleIds [i] = isRestricting( _roles [i] ) ? Arrays.binarySearch( _restrictingRoles, _roles [i] ) : NONE;
+		}
+	}
+
+	/**
+	 * @param strRole
+	 *                a page role
+	 * @return true if the role restricts the visibility of the page
+	 */
+	private static boolean isRestricting( String strRole )
+	{
+		return strRole != null && ! strRole.isBlank( ) && ! Page.ROLE_NONE.equals( strRole );
+	}
+
+	/**
+	 * Returns the id of the parent page
+	 * 
+	 * @param nIndex
+	 *               the page index
+	 * @return the id of the parent page, or 0 if the page has no parent
+	 */
+	public int getParentPageId( int nIndex )
+	{
+		int nParent = _parents [nIndex];
+
+		return ( nParent == NONE ) ? 0 : _pageIds [nParent];
+	}
+
+	/**
+	 * Create the page information of a page
+	 * 
+	 * @param nIndex
+	 *               the page index
+	 * @return the page information
+	 */
+	public PageInfo getPageInfo( int nIndex )
+	{
+		return new PageInfo( _pageIds [nIndex], getParentPageId( nIndex ), _names [nIndex], _descriptions [nIndex],
+				_orders [nIndex], _roles [nIndex] );
+	}
+
+	/**
+	 * Intern a string so that identical names, descriptions and roles share the
+	 * same instance
+	 * 
+	 * @param str
+	 *            the string
+	 * @return the interned string
+	 */
+	private static String intern( String str )
+	{
+		return ( str == null ) ? null : str.intern( );
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.PageInfo;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The active trail of a page : the page and its ancestors, from the page
+ * without parent down to the page. Templates check if a menu item is in the
+ * trail with {@link #contains(int)} instead of walking the tree.
+ */
+public final class ActiveTrail
+{
+	private final Set < Integer > _setPageIds;
+	private final List < PageInfo > _listBreadcrumb;
+
+	/**
+	 * Private constructor - use {@link #build(SiteTreeSnapshot, int)}
+	 * 
+	 * @param setPageIds
+	 *                       the identifiers of the pages of the trail
+	 * @param listBreadcrumb
+	 *                       the pages of the trail, in order
+	 */
+	private ActiveTrail( Set < Integer > setPageIds, List < PageInfo > listBreadcrumb )
+	{
+		_setPageIds = setPageIds;
+		_listBreadcrumb = listBreadcrumb;
+	}
+
+	/**
+	 * Build the active trail of a page
+	 * 
+	 * @param snapshot
+	 *                 the site tree snapshot
+	 * @param nPageId
+	 *                 the page identifier
+	 * @return the active trail, empty if the page is unknown
+	 */
+	public static ActiveTrail build( SiteTreeSnapshot snapshot, int nPageId )
+	{
+		int nIndex = snapshot.indexOf( nPageId );
+
+		if( nIndex == SiteTreeSnapshot.NONE )
+		{
+			return new ActiveTrail( Collections.emptySet( ), Collections.emptyList( ) );
+		}
+
+		int [ ] path = snapshot.getPath( nIndex );
+		Set < Integer > setPageIds = new HashSet <>( );
+		List < PageInfo > listBreadcrumb = new ArrayList <>( path.length );
+
+		for( int nAncestor : path )
+		{
+			setPageIds.add( snapshot.getPageId( nAncestor ) );
+			listBreadcrumb.add( snapshot.getPageInfo( nAncestor ) );
+		}
+
+		return new ActiveTrail( Collections.unmodifiableSet( setPageIds ),
+				Collections.unmodifiableList( listBreadcrumb ) );
+	}
+
+	/**
+	 * Tells if a page is the current page or one of its ancestors
+	 * 
+	 * @param nPageId
+	 *                the page identifier
+	 * @return true if the page is in the trail
+	 */
+	public boolean contains( int nPageId )
+	{
+		return _setPageIds.contains( nPageId );
+	}
+
+	/**
+	 * Returns the identifiers of the pages of the trail
+	 * 
+	 * @return the page identifiers
+	 */
+	public Set < Integer > getPageIds( )
+	{
+		return _setPageIds;
+	}
+
+	/**
+	 * Returns the pages of the trail, from the page without parent down to the
+	 * current page
+	 * 
+	 * @return the breadcrumb
+	 */
+	public List < PageInfo > getBreadcrumb( )
+	{
+		return _listBreadcrumb;
+	}
+}
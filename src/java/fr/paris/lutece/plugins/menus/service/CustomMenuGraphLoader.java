@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.CustomMenu;
+import fr.paris.lutece.plugins.menus.business.CustomMenuItem;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+
+/**
+ * CustomMenuGraphLoader
+ * 
+ * <p>
+ * Wires the custom menus and their items, loaded with two queries, into the
+ * graph of the sub-menus in memory. The labels and links of the items are
+ * resolved once per graph. The graph is part of the {@link MenuGeneration},
+ * which is built again when a custom menu or a custom menu item is written,
+ * and when the site tree changes as the dynamic labels are page titles.
+ * </p>
+ */
+@ApplicationScoped
+public class CustomMenuGraphLoader
+{
+	/** Depth of the top level menus */
+	public static final int CURRENT_DEPTH = 1;
+
+	/** Deepest level whose sub-menus are wired */
+	public static final int MAX_DEPTH = 2;
+
+	private static final String TYPE_MENU = "menu";
+
+	@Inject
+	private CustomMenuService _customMenuService;
+
+	@Inject
+	private MenuGenerationService _menuGenerationService;
+
+	/**
+	 * Returns all the custom menus with their items and sub-menus, from the
+	 * current menu generation
+	 * 
+	 * @return the custom menus, in the order of the database
+	 */
+	public List < CustomMenu > getCustomMenus( )
+	{
+		return _menuGenerationService.getGeneration( ).getCustomMenus( );
+	}
+
+	/**
+	 * Assemble the graph of the custom menus and resolve the labels and links of
+	 * its items
+	 * 
+	 * @param listMenus
+	 *                  All the custom menus
+	 * @param listItems
+	 *                  All the custom menu items, ordered by menu and item order
+	 * @param snapshot
+	 *                  The site tree snapshot the dynamic labels are read from
+	 * @return the top level menus with their items and sub-menus
+	 */
+	public List < CustomMenu > buildGraph( List < CustomMenu > listMenus, List < CustomMenuItem > listItems,
+			SiteTreeSnapshot snapshot )
+	{
+		List < CustomMenu > listCustomMenus = loadGraph( listMenus, listItems );
+		_customMenuService.resolveItems( listCustomMenus, snapshot );
+
+		return listCustomMenus;
+	}
+
+	/**
+	 * Assemble the graph of the custom menus
+	 * 
+	 * @param listMenus
+	 *                  All the custom menus
+	 * @param listItems
+	 *                  All the custom menu items, ordered by menu and item order
+	 * @return the top level menus with their items and sub-menus
+	 */
+	static List < CustomMenu > loadGraph( List < CustomMenu > listMenus, List < CustomMenuItem > listItems )
+	{
+		Map < Integer, CustomMenu > mapMenus = new HashMap <>( );
+
+		for( CustomMenu menu : listMenus )
+		{
+			mapMenus.put( menu.getId( ), menu );
+		}
+
+		Map < Integer, List < CustomMenuItem > > mapItemsByMenu = new HashMap <>( );
+
+		for( CustomMenuItem item : listItems )
+		{
+			mapItemsByMenu.computeIfAbsent( item.getParentMenuId( ), k -> new ArrayList <>( ) ).add( item );
+		}
+
+		List < CustomMenu > listGraph = new ArrayList <>( listMenus.size( ) );
+		Deque < Integer > path = new ArrayDeque <>( );
+
+		for( CustomMenu menu : listMenus )
+		{
+			listGraph.add( buildMenu( menu, CURRENT_DEPTH, mapMenus, mapItemsByMenu, path ) );
+		}
+
+		return Collections.unmodifiableList( listGraph );
+	}
+
+	/**
+	 * Build a copy of a menu with its items. The sub-menus of the items are
+	 * wired up to {@link #MAX_DEPTH}; the sub-menus of the last level get their
+	 * items without further sub-menus. A sub-menu already on the path from the top
+	 * level menu is not wired, to break cycles.
+	 * 
+	 * @param menu
+	 *                       The menu
+	 * @param nDepth
+	 *                       The depth of the menu
+	 * @param mapMenus
+	 *                       The menus by id
+	 * @param mapItemsByMenu
+	 *                       The items by menu id
+	 * @param path
+	 *                       The ids of the menus from the top level menu
+	 * @return the copy of the menu
+	 */
+	private static CustomMenu buildMenu( CustomMenu menu, int nDepth, Map < Integer, CustomMenu > mapMenus,
+			Map < Integer, List < CustomMenuItem > > mapItemsByMenu, Deque < Integer > path )
+	{
+		CustomMenu copy = copyMenu( menu );
+		List < CustomMenuItem > listItems = new ArrayList <>( );
+		path.push( menu.getId( ) );
+
+		for( CustomMenuItem item : mapItemsByMenu.getOrDefault( menu.getId( ), Collections.emptyList( ) ) )
+		{
+			CustomMenuItem itemCopy = copyItem( item );
+
+			if( nDepth <= MAX_DEPTH && Strings.CS.equals( item.getType( ), TYPE_MENU )
+					&& ! StringUtils.isBlank( item.getSourceItemId( ) ) )
+			{
+				CustomMenu subMenu = findSubMenu( item, mapMenus );
+
+				if( subMenu != null && path.contains( subMenu.getId( ) ) )
+				{
+					AppLogService.error( "Custom menu cycle detected : menu " + subMenu.getId( )
+							+ " is already a parent of item " + item.getId( ) );
+				}
+				else if( subMenu != null )
+				{
+					itemCopy.setSubMenu( buildMenu( subMenu, nDepth + 1, mapMenus, mapItemsByMenu, path ) );
+				}
+			}
+
+			listItems.add( itemCopy );
+		}
+
+		path.pop( );
+		copy.setListItems( listItems );
+
+		return copy;
+	}
+
+	/**
+	 * Find the sub-menu of a menu item
+	 * 
+	 * @param item
+	 *                 The menu item
+	 * @param mapMenus
+	 *                 The menus by id
+	 * @return the sub-menu, or null if it doesn't exist
+	 */
+	private static CustomMenu findSubMenu( CustomMenuItem item, Map < Integer, CustomMenu > mapMenus )
+	{
+		try
+		{
+			return mapMenus.get( Integer.parseInt( item.getSourceItemId( ) ) );
+		}
+		catch( NumberFormatException e )
+		{
+			AppLogService.error( "Error loading sub-menu for item: " + item.getSourceItemId( ), e );
+
+			return null;
+		}
+	}
+
+	/**
+	 * Copy a menu without its items
+	 * 
+	 * @param menu
+	 *             The menu
+	 * @return the copy
+	 */
+	private static CustomMenu copyMenu( CustomMenu menu )
+	{
+		CustomMenu copy = new CustomMenu( );
+		copy.setId( menu.getId( ) );
+		copy.setName( menu.getName( ) );
+		copy.setBookmark( menu.getBookmark( ) );
+		copy.setType( menu.getType( ) );
+		copy.setDescription( menu.getDescription( ) );
+
+		return copy;
+	}
+
+	/**
+	 * Copy a menu item without its sub-menu
+	 * 
+	 * @param item
+	 *             The menu item
+	 * @return the copy
+	 */
+	private static CustomMenuItem copyItem( CustomMenuItem item )
+	{
+		CustomMenuItem copy = new CustomMenuItem( );
+		copy.setId( item.getId( ) );
+		copy.setParentMenuId( item.getParentMenuId( ) );
+		copy.setSourceItemId( item.getSourceItemId( ) );
+		copy.setIsLabelDynamic( item.isLabelDynamic( ) );
+		copy.setIsBlank( item.isBlank( ) );
+
+		// The dynamic labels are resolved against the snapshot of the graph
+		if( ! item.isLabelDynamic( ) )
+		{
+			copy.setLabel( item.getLabel( ) );
+		}
+
+		copy.setType( item.getType( ) );
+		copy.setUrl( item.getUrl( ) );
+		copy.setOrder( item.getOrder( ) );
+
+		return copy;
+	}
+}
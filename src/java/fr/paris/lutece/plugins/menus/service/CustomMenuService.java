@@ -35,11 +35,12 @@ package fr.paris.lutece.plugins.menus.service;
 
 import fr.paris.lutece.plugins.menus.business.CustomMenu;
 import fr.paris.lutece.plugins.menus.business.CustomMenuHome;
-import fr.paris.lutece.plugins.menus.business.MenuItem;
+import fr.paris.lutece.plugins.menus.business.CustomMenuItem;
+import fr.paris.lutece.plugins.menus.business.PageCatalogue;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
 import fr.paris.lutece.portal.service.content.XPageAppService;
 import fr.paris.lutece.portal.service.util.AppPathService;
 import fr.paris.lutece.portal.web.xpages.XPageApplicationEntry;
-import fr.paris.lutece.util.ReferenceItem;
 import fr.paris.lutece.util.ReferenceList;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -48,6 +49,8 @@ import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.servlet.ServletContext;
 
+import java.util.List;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
 
@@ -58,8 +61,20 @@ public class CustomMenuService
 	public static final int MODE_ADMIN = 1;
 	public static final String MARKER_SITE_PATH = "site_path";
 
+	// Item types, as stored in menus_custom_menu_items
+	private static final String ITEM_TYPE_PAGE = "page";
+	private static final String ITEM_TYPE_XPAGE = "xpage";
+	private static final String ITEM_TYPE_MENU = "menu";
+	private static final String PARAMETER_PAGE_ID = "?page_id=";
+	private static final String PARAMETER_PAGE = "?page=";
+	private static final String QUERY_STRING_PREFIX = "?";
+	private static final String HREF_NONE = "#";
+
+	@Inject
+	private PageCatalogueService _pageCatalogueService;
+
 	@Inject
-	private MainTreeMenuAllPagesService _mainTreeMenuAllPagesService;
+	private PageTitleIndexService _pageTitleIndexService;
 
 	/**
 	 * Define the site path : Portal Url when mode isn't admin mode, otherwise
@@ -155,70 +170,165 @@ public class CustomMenuService
 	}
 
 	/**
-	 * Get the available menus reference list
+	 * Get the available pages reference list
 	 * 
-	 * @return the reference list
+	 * @param strFilterCriteria
+	 *                          The searched words, may be blank
+	 * @return the reference list of all the matching pages
 	 */
 	public ReferenceList getAvailablePagesReferenceList( String strFilterCriteria )
 	{
-		MenuItem root = _mainTreeMenuAllPagesService.getFullTreeMenuItems( );
+		return getAvailablePagesReferenceList( strFilterCriteria, 0, Integer.MAX_VALUE );
+	}
+
+	/**
+	 * Get a page of the available pages reference list. The pages matching the
+	 * most words of the criteria come first.
+	 * 
+	 * @param strFilterCriteria
+	 *                          The searched words, may be blank
+	 * @param nOffset
+	 *                          The position of the first page to return
+	 * @param nLimit
+	 *                          The maximum number of pages to return
+	 * @return the reference list
+	 */
+	public ReferenceList getAvailablePagesReferenceList( String strFilterCriteria, int nOffset, int nLimit )
+	{
+		PageCatalogue catalogue = _pageCatalogueService.getCatalogue( );
+		int [ ] matches = catalogue.search( strFilterCriteria );
+		int nEnd = (int) Math.min( matches.length, (long) Math.max( nOffset, 0 ) + nLimit );
 
 		ReferenceList referenceList = new ReferenceList( );
 
-		if( root != null )
+		for( int i = Math.max( nOffset, 0 ) ; i < nEnd ; i ++ )
 		{
-			traverseItem( root, referenceList, strFilterCriteria );
+			referenceList.addItem( catalogue.getPageId( matches [i] ), catalogue.getLabel( matches [i] ) );
 		}
 
 		return referenceList;
 	}
 
 	/**
-	 * Recursive methode to get all pages
+	 * Count the available pages matching a criteria
 	 * 
-	 * @param MenuItem      Each Item containing a page
-	 * @param ReferenceList ReferenceList with all pages
+	 * @param strFilterCriteria
+	 *                          The searched words, may be blank
+	 * @return the number of matching pages
 	 */
-	private void traverseItem( MenuItem item, ReferenceList referenceList, String strFilterCriteria )
+	public int countAvailablePages( String strFilterCriteria )
 	{
-		if( item != null )
-		{
+		return _pageCatalogueService.getCatalogue( ).search( strFilterCriteria ).length;
+	}
 
-			if( item.getPage( ) != null && ( isSearchCriteriaValidated( item.getPage( ).getName( ), strFilterCriteria )
-					|| isSearchCriteriaValidated( item.getPage( ).getDescription( ), strFilterCriteria )
-					|| isSearchCriteriaValidated( String.valueOf( item.getPage( ).getId( ) ), strFilterCriteria ) ) )
-			{
-				String name = item.getPage( ).getName( ) != null ? item.getPage( ).getName( ) : "";
-				String description = item.getPage( ).getDescription( ) != null ? item.getPage( ).getDescription( ) : "";
-				String value = name + " - " + description;
+	/**
+	 * Get the title of a page from the page title index. The whole page name is
+	 * returned : the label is no longer cut at its first dash, which was only
+	 * meant to drop the " - description" suffix of the page picker labels and
+	 * also truncated hyphenated page names.
+	 * 
+	 * @param strSourceItemId
+	 *                        The page identifier
+	 * @return the title of the page, or an empty string if the page is unknown
+	 */
+	public String getLabelPageById( String strSourceItemId )
+	{
+		String strLabel = _pageTitleIndexService.getTitle( strSourceItemId );
 
-				referenceList.addItem( item.getPage( ).getId( ), value );
-			}
+		return strLabel != null ? strLabel : "";
+	}
+
+	/**
+	 * Resolve the labels and the links of the items of menus and of their
+	 * sub-menus, so that the templates read precomputed values
+	 * 
+	 * @param listMenus
+	 *                  The menus
+	 */
+	public void resolveItems( List < CustomMenu > listMenus )
+	{
+		resolveItems( listMenus, null );
+	}
 
-			if( item.getChilds( ) != null )
+	/**
+	 * Resolve the labels and the links of the items of menus and of their
+	 * sub-menus, reading the dynamic labels from a given site tree snapshot
+	 * 
+	 * @param listMenus
+	 *                  The menus
+	 * @param snapshot
+	 *                  The site tree snapshot, or null for the current one
+	 */
+	public void resolveItems( List < CustomMenu > listMenus, SiteTreeSnapshot snapshot )
+	{
+		for( CustomMenu menu : listMenus )
+		{
+			for( CustomMenuItem item : menu.getListItems( ) )
 			{
-				for( MenuItem child : item.getChilds( ) )
+				resolveItem( item, snapshot );
+
+				if( item.getSubMenu( ) != null )
 				{
-					traverseItem( child, referenceList, strFilterCriteria );
+					resolveItems( List.of( item.getSubMenu( ) ), snapshot );
 				}
 			}
 		}
 	}
 
-	public String getLabelPageById( String strSourceItemId )
+	/**
+	 * Resolve the dynamic label and the link of an item. The link of a page or an
+	 * xpage is relative to the site path, which depends on the mode.
+	 * 
+	 * @param item
+	 *             The item
+	 */
+	public void resolveItem( CustomMenuItem item )
 	{
+		resolveItem( item, null );
+	}
 
-		ReferenceList listPages = getAvailablePagesReferenceList( "" );
-
-		for( ReferenceItem page : listPages )
+	/**
+	 * Resolve the dynamic label and the link of an item, reading the dynamic label
+	 * from a given site tree snapshot
+	 * 
+	 * @param item
+	 *                 The item
+	 * @param snapshot
+	 *                 The site tree snapshot, or null for the current one
+	 */
+	public void resolveItem( CustomMenuItem item, SiteTreeSnapshot snapshot )
+	{
+		// If an item is a page referenced and option labelDynamic is at true
+		if( item.isLabelDynamic( ) && ! StringUtils.isBlank( item.getSourceItemId( ) ) )
 		{
-			if( Strings.CS.equals( strSourceItemId, page.getCode( ) ) )
-			{
-				return page.getName( );
-			}
+			item.setResolvedLabel( ( snapshot != null )
+					? StringUtils.defaultString( PageTitleIndexService.getTitle( snapshot, item.getSourceItemId( ) ) )
+					: getLabelPageById( item.getSourceItemId( ) ) );
 		}
 
-		return "";
+		String strUrl = StringUtils.defaultString( item.getUrl( ) );
+		String strSourceItemId = StringUtils.defaultString( item.getSourceItemId( ) );
+
+		if( Strings.CS.equals( item.getType( ), ITEM_TYPE_PAGE ) )
+		{
+			item.setHref( strUrl.isEmpty( ) ? PARAMETER_PAGE_ID + strSourceItemId : QUERY_STRING_PREFIX + strUrl );
+			item.setHrefRelative( true );
+		}
+		else if( Strings.CS.equals( item.getType( ), ITEM_TYPE_XPAGE ) )
+		{
+			item.setHref( strUrl.isEmpty( ) ? PARAMETER_PAGE + strSourceItemId : QUERY_STRING_PREFIX + strUrl );
+			item.setHrefRelative( true );
+		}
+		else if( Strings.CS.equals( item.getType( ), ITEM_TYPE_MENU ) )
+		{
+			item.setHref( HREF_NONE );
+			item.setHrefRelative( false );
+		}
+		else
+		{
+			item.setHref( strUrl );
+			item.setHrefRelative( false );
+		}
 	}
 
 	/**
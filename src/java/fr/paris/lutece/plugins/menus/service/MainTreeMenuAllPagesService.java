@@ -33,12 +33,8 @@
  */
 package fr.paris.lutece.plugins.menus.service;
 
-import java.util.Collection;
-
 import fr.paris.lutece.plugins.menus.business.MenuItem;
 import fr.paris.lutece.plugins.menus.service.cache.MainTreeMenuAllPagesCacheService;
-import fr.paris.lutece.portal.business.page.Page;
-import fr.paris.lutece.portal.business.page.PageHome;
 import fr.paris.lutece.portal.service.datastore.DatastoreService;
 import fr.paris.lutece.portal.service.portal.PortalService;
 import fr.paris.lutece.portal.service.util.AppPropertiesService;
@@ -65,6 +61,12 @@ public class MainTreeMenuAllPagesService
 	@Inject
 	private MainTreeMenuAllPagesCacheService _cacheService;
 
+	@Inject
+	private PageTreeService _pageTreeService;
+
+	@Inject
+	private SiteTreeService _siteTreeService;
+
 	/**
 	 * Returns the unique instance of the {@link MainTreeMenuAllPagesService}
 	 * service.
@@ -98,28 +100,14 @@ public class MainTreeMenuAllPagesService
 		// AppPropertiesService
 		int nDepth = Integer.parseInt( DatastoreService.getDataValue( PROPERTY_DEPTH_MAIN_LEVEL_ALLPAGES,
 				AppPropertiesService.getProperty( PROPERTY_DEPTH_MAIN_LEVEL_ALLPAGES, "0" ) ) );
-		MenuItem root;
-
-		if( _cacheService != null && _cacheService.isCacheEnable( ) )
-		{
-			String strCacheKey = _cacheService.getMainMenuCacheKey( );
-			root = ( MenuItem ) _cacheService.get( strCacheKey );
-
-			if( root == null )
-			{
-				root = new MenuItem( );
 
-				buildMenuTree( root, PortalService.getRootPageId( ), nDepth );
-				_cacheService.put( strCacheKey, root );
-			}
-		}
-		else
+		if( _cacheService != null )
 		{
-			root = new MenuItem( );
-			buildMenuTree( root, PortalService.getRootPageId( ), nDepth );
+			return _cacheService.getOrCompute( _cacheService.getMainMenuCacheKey( ),
+					( ) -> _pageTreeService.getChildMenuTree( PortalService.getRootPageId( ), nDepth ) );
 		}
 
-		return root;
+		return _pageTreeService.getChildMenuTree( PortalService.getRootPageId( ), nDepth );
 	}
 
 	/**
@@ -131,39 +119,18 @@ public class MainTreeMenuAllPagesService
 	 */
 	public MenuItem getTreeMenuItems( int nCurrentPageId )
 	{
+		// Define the level of tree
+		int nDepth = Integer.parseInt( DatastoreService.getDataValue( PROPERTY_DEPTH_TREE_LEVEL_ALLPAGES,
+				AppPropertiesService.getProperty( PROPERTY_DEPTH_TREE_LEVEL_ALLPAGES, "3" ) ) );
 
-		MenuItem root;
-		String strCacheKey = "";
-
-		if( _cacheService != null && _cacheService.isCacheEnable( ) )
-		{
-			strCacheKey = _cacheService.getMenuTreeCacheKey( nCurrentPageId );
-			root = ( MenuItem ) _cacheService.get( strCacheKey );
-
-			if( root == null )
-			{
-				root = new MenuItem( );
-
-				// Define the level of tree
-				int nDepth = Integer.parseInt( DatastoreService.getDataValue( PROPERTY_DEPTH_TREE_LEVEL_ALLPAGES,
-						AppPropertiesService.getProperty( PROPERTY_DEPTH_TREE_LEVEL_ALLPAGES, "3" ) ) );
-
-				buildMenuTree( root, PortalService.getRootPageId( ), nDepth );
-				_cacheService.put( strCacheKey, root );
-			}
-		}
-		else
+		if( _cacheService != null )
 		{
-			root = new MenuItem( );
-
-			// Define the level of tree
-			int nDepth = Integer.parseInt( DatastoreService.getDataValue( PROPERTY_DEPTH_TREE_LEVEL_ALLPAGES,
-					AppPropertiesService.getProperty( PROPERTY_DEPTH_TREE_LEVEL_ALLPAGES, "3" ) ) );
-
-			buildMenuTree( root, PortalService.getRootPageId( ), nDepth );
+			// The tree doesn't depend on the current page, so it is shared by all pages
+			return _cacheService.getOrCompute( _cacheService.getMenuTreeCacheKey( PortalService.getRootPageId( ) ),
+					( ) -> _pageTreeService.getChildMenuTree( PortalService.getRootPageId( ), nDepth ) );
 		}
 
-		return root;
+		return _pageTreeService.getChildMenuTree( PortalService.getRootPageId( ), nDepth );
 	}
 
 	/**
@@ -175,53 +142,7 @@ public class MainTreeMenuAllPagesService
 	 */
 	public int getRootParentTree( int nPageId )
 	{
-		Page page = PageHome.getPage( nPageId );
-		int nParentPageId = page.getParentPageId( );
-
-		if( nParentPageId == 0 )
-		{
-			return nPageId;
-		}
-
-		int nParentTree = nParentPageId;
-
-		int nPageRootId = PortalService.getRootPageId( );
-
-		while( nParentPageId != nPageRootId )
-		{
-			nParentTree = nParentPageId;
-
-			Page parentPage = PageHome.getPage( nParentPageId );
-			nParentPageId = parentPage.getParentPageId( );
-		}
-
-		return nParentTree;
-	}
-
-	/**
-	 * Build the menu tree from nPageId, the number of levels defined by nDepth
-	 * 
-	 * @param item
-	 *                The MenunItem object
-	 * @param nPageId
-	 *                The page identifier
-	 * @param nDepth
-	 *                The page level
-	 */
-	private void buildMenuTree( MenuItem item, int nPageId, int nDepth )
-	{
-		if( nDepth > 0 )
-		{
-			Collection < Page > listPages = PageHome.getChildPages( nPageId );
-
-			for( Page page : listPages )
-			{
-				MenuItem menuItem = new MenuItem( );
-				menuItem.setPage( PageHome.findByPrimaryKey( page.getId( ) ) );
-				item.addChild( menuItem );
-				buildMenuTree( menuItem, page.getId( ), nDepth - 1 );
-			}
-		}
+		return _siteTreeService.getRootParentTree( nPageId );
 	}
 
 	/**
@@ -230,33 +151,7 @@ public class MainTreeMenuAllPagesService
 	 */
 	public MenuItem getFullTreeMenuItems( )
 	{
-		int nRootId = PortalService.getRootPageId( );
-		MenuItem root = new MenuItem( );
-		root.setPage( PageHome.findByPrimaryKey( nRootId ) );
-		buildFullMenuTreeRecursive( root, nRootId );
-		return root;
-	}
-
-	/**
-	 *
-	 * @param item    MenuItem item
-	 * @param nPageId id of the currentPage
-	 */
-	private void buildFullMenuTreeRecursive( MenuItem item, int nPageId )
-	{
-		Collection < Page > listPages = PageHome.getChildPages( nPageId );
-		if( listPages == null || listPages.isEmpty( ) )
-		{
-			// No more child
-			return;
-		}
-		for( Page page : listPages )
-		{
-			MenuItem childItem = new MenuItem( );
-			childItem.setPage( PageHome.findByPrimaryKey( page.getId( ) ) );
-			item.addChild( childItem );
-			buildFullMenuTreeRecursive( childItem, page.getId( ) );
-		}
+		return _pageTreeService.getPageMenuTree( PortalService.getRootPageId( ), Integer.MAX_VALUE );
 	}
 
 	/**
@@ -33,11 +33,6 @@
  */
 package fr.paris.lutece.plugins.menus.service;
 
-import fr.paris.lutece.portal.business.page.Page;
-import fr.paris.lutece.portal.business.page.PageHome;
-
-import java.util.Collection;
-
 import fr.paris.lutece.plugins.menus.business.MenuItem;
 import fr.paris.lutece.plugins.menus.service.cache.MainTreeMenuCacheService;
 import fr.paris.lutece.portal.service.datastore.DatastoreService;
@@ -66,6 +61,37 @@ public class MainTreeMenuService
 	@Inject
 	private MainTreeMenuCacheService _cacheService;
 
+	@Inject
+	private PageTreeService _pageTreeService;
+
+	@Inject
+	private SiteTreeService _siteTreeService;
+
+	/**
+	 * Constructor used by CDI
+	 */
+	public MainTreeMenuService( )
+	{
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param cacheService
+	 *                        The cache service, may be null
+	 * @param pageTreeService
+	 *                        The service building the menu trees
+	 * @param siteTreeService
+	 *                        The site tree service
+	 */
+	MainTreeMenuService( MainTreeMenuCacheService cacheService, PageTreeService pageTreeService,
+			SiteTreeService siteTreeService )
+	{
+		_cacheService = cacheService;
+		_pageTreeService = pageTreeService;
+		_siteTreeService = siteTreeService;
+	}
+
      /**
      * Returns the unique instance of the {@link MainTreeMenuService} service.
      * 
@@ -94,29 +120,14 @@ public class MainTreeMenuService
 		 // Define the level of tree - Use DatastoreService with fallback on AppPropertiesService
         int nDepth = Integer.parseInt( DatastoreService.getDataValue( PROPERTY_DEPTH_MAIN_LEVEL, 
                     AppPropertiesService.getProperty( PROPERTY_DEPTH_MAIN_LEVEL, "1" ) ) );
-		MenuItem root;
 
-		if( _cacheService != null && _cacheService.isCacheEnable( ) )
-		{
-			String strCacheKey = _cacheService.getMainMenuCacheKey( );
-			root = ( MenuItem ) _cacheService.get( strCacheKey );
-
-			if( root == null )
-			{
-				root = new MenuItem( );
-
-				// Use the new method to build menu at specific level
-				buildMenuTree( root, PortalService.getRootPageId( ), nDepth );
-				_cacheService.put( strCacheKey, root );
-			}
-		}
-		else
+		if( _cacheService != null )
 		{
-			root = new MenuItem( );
-			buildMenuTree( root, PortalService.getRootPageId( ), nDepth );
+			return _cacheService.getOrCompute( _cacheService.getMainMenuCacheKey( ),
+					( ) -> _pageTreeService.getChildMenuTree( PortalService.getRootPageId( ), nDepth ) );
 		}
 
-		return root;
+		return _pageTreeService.getChildMenuTree( PortalService.getRootPageId( ), nDepth );
 	}
 
     /**
@@ -124,43 +135,36 @@ public class MainTreeMenuService
      * 
      * @param nCurrentPageId
      *            The current page id
-     * @param nRootParentTree
+     * @param nParentCurrentPageId
      *            The parent page of the current page
      * @return the TreeMenuItems from root MenuItem
      */
     public MenuItem getTreeMenuItems( int nCurrentPageId, int nParentCurrentPageId )
 	{
-
-		MenuItem root = null;
-		String strCacheKey = "";
-
-		if( _cacheService != null && _cacheService.isCacheEnable( ) )
+		if( _cacheService != null )
 		{
-			strCacheKey = _cacheService.getMenuTreeCacheKey( nCurrentPageId );
-			root = ( MenuItem ) _cacheService.get( strCacheKey );
+			return _cacheService.getOrCompute( _cacheService.getMenuTreeCacheKey( nCurrentPageId ),
+					( ) -> buildTreeMenu( nCurrentPageId, nParentCurrentPageId ) );
+		}
 
-			if( root == null )
-			{
-				root = new MenuItem( );
-			}
-			
-			generateTreeMenu( root, nCurrentPageId, nParentCurrentPageId );
+		return buildTreeMenu( nCurrentPageId, nParentCurrentPageId );
+	}
 
-			if (_cacheService != null) {
-				try {
-					_cacheService.put(strCacheKey, root);
-				} catch (NullPointerException e) {
-					
-				}
-			}
-		}
-		else
-		{
-			root = new MenuItem( );
-			generateTreeMenu( root, nCurrentPageId, nParentCurrentPageId );
-		}
+	/**
+	 * Build the frozen tree menu of a page
+	 * 
+	 * @param nCurrentPageId
+	 *                             The current page id
+	 * @param nParentCurrentPageId
+	 *                             The parent page of the current page
+	 * @return the root MenuItem of the tree menu
+	 */
+	private MenuItem buildTreeMenu( int nCurrentPageId, int nParentCurrentPageId )
+	{
+		MenuItem root = new MenuItem( );
+		generateTreeMenu( root, nCurrentPageId, nParentCurrentPageId );
 
-		return root;
+		return root.freeze( );
 	}
     
     public void generateTreeMenu( MenuItem root, int nCurrentPageId, int nParentCurrentPageId )
@@ -184,18 +188,20 @@ public class MainTreeMenuService
         if( nCurrentPageId==0 || nCurrentPageId==nRootId ) 
         {
         	//Add only child pages of the root. THe page root doesn't appear in tree menu
-        	buildMenuTree( root, nRootId, nDepth );
+        	for( MenuItem child : _pageTreeService.getChildMenuTree( nRootId, nDepth ).getChilds( ) )
+        	{
+        		root.addChild( child );
+        	}
         }
         else
         {
-        	//Add currentPage in menu
-    		MenuItem menuItem = new MenuItem( );
-            menuItem.setPage( PageHome.findByPrimaryKey( nCurrentPageId ) );
-            root.addChild( menuItem );
-        	
-            //Add its child pages
-            MenuItem childRoot = root.getChilds( ).get( 0 );
-        	buildMenuTree( childRoot, nCurrentPageId, nDepth );
+        	//Add currentPage in menu with its child pages
+    		MenuItem menuItem = _pageTreeService.getPageMenuTree( nCurrentPageId, nDepth );
+
+    		if( menuItem != null )
+    		{
+    			root.addChild( menuItem );
+    		}
         }
     }
     
@@ -209,53 +215,7 @@ public class MainTreeMenuService
 	 */
 	public int getRootParentTree( int nPageId )
 	{
-		Page page = PageHome.getPage( nPageId );
-		int nParentPageId = page.getParentPageId( );
-
-		if( nParentPageId == 0 )
-		{
-			return nPageId;
-		}
-
-		int nParentTree = nParentPageId;
-
-		int nPageRootId = PortalService.getRootPageId( );
-
-		while( nParentPageId != nPageRootId )
-		{
-			nParentTree = nParentPageId;
-
-			Page parentPage = PageHome.getPage( nParentPageId );
-			nParentPageId = parentPage.getParentPageId( );
-		}
-
-		return nParentTree;
-	}
-
-	/**
-	 * Build the menu tree from nPageId, the number of levels defined by nDepth
-	 * 
-	 * @param item
-	 *                The MenunItem object
-	 * @param nPageId
-	 *                The page identifier
-	 * @param nDepth
-	 *                The page level
-	 */
-	private void buildMenuTree( MenuItem item, int nPageId, int nDepth )
-	{
-		if( nDepth > 0 )
-		{
-			Collection < Page > listPages = PageHome.getChildPages( nPageId );
-
-			for( Page page : listPages )
-			{
-				MenuItem menuItem = new MenuItem( );
-				menuItem.setPage( PageHome.findByPrimaryKey( page.getId( ) ) );
-				item.addChild( menuItem );
-				buildMenuTree( menuItem, page.getId( ), nDepth - 1 );
-			}
-		}
+		return _siteTreeService.getRootParentTree( nPageId );
 	}
 
 	/**
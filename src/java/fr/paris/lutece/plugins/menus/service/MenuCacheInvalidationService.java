@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.MenusInvalidationMessage;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.plugins.menus.service.cache.MainTreeMenuAllPagesCacheService;
+import fr.paris.lutece.plugins.menus.service.cache.MainTreeMenuCacheService;
+import fr.paris.lutece.plugins.menus.service.cache.MenusFragmentCacheService;
+import fr.paris.lutece.plugins.menus.service.invalidation.MenusInvalidationBus;
+import fr.paris.lutece.portal.business.page.PageEvent;
+import fr.paris.lutece.portal.service.cache.CacheableService;
+import fr.paris.lutece.portal.service.cache.ManageCacheService;
+import fr.paris.lutece.portal.service.portal.PortalService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * MenuCacheInvalidationService
+ * 
+ * <p>
+ * Listens to the page events and evicts only the menu tree cache entries that
+ * may contain the changed page: the entries of its ancestors and of its
+ * descendants, before and after the change. The changes of the pages and of
+ * the custom menus are handed to {@link MenuGenerationService}, which evicts
+ * the entries once the next menu generation is swapped in. The rendered
+ * fragments are reset along with the data caches, as the menus containing a
+ * page are displayed on many other pages, and so is the version of the
+ * serialized menu tree.
+ * </p>
+ * <p>
+ * The page events are published on the {@link MenusInvalidationBus}, so that
+ * the other nodes of a cluster apply the same eviction.
+ * </p>
+ */
+@ApplicationScoped
+public class MenuCacheInvalidationService
+{
+	// Name of the cache of the portal pages
+	private static final String NAME_PAGE_SERVICE_CACHE = "PageCacheService";
+
+	@Inject
+	private MainTreeMenuCacheService _mainTreeMenuCacheService;
+
+	@Inject
+	private MainTreeMenuAllPagesCacheService _mainTreeMenuAllPagesCacheService;
+
+	@Inject
+	private MenusFragmentCacheService _fragmentCacheService;
+
+	@Inject
+	private MenuTreePayloadService _menuTreePayloadService;
+
+	@Inject
+	private MenuGenerationService _menuGenerationService;
+
+	@Inject
+	private MenusRegistryService _menusRegistryService;
+
+	@Inject
+	private ManageCacheService _manageCacheService;
+
+	@Inject
+	private MenusInvalidationBus _menusInvalidationBus;
+
+	/**
+	 * Process a page creation, modification, move or removal
+	 * 
+	 * @param event
+	 *              the page event
+	 */
+	public void processPageEvent( @Observes PageEvent event )
+	{
+		if( event.getPage( ) != null )
+		{
+			_menusInvalidationBus.invalidate( MenusInvalidationMessage.SCOPE_PAGE, event.getPage( ).getId( ) );
+		}
+		else
+		{
+			_menusInvalidationBus.invalidate( MenusInvalidationMessage.SCOPE_SITE );
+		}
+	}
+
+	/**
+	 * Apply an invalidation, raised on this node or received from another one
+	 * 
+	 * @param message
+	 *                the invalidation message
+	 */
+	public void apply( MenusInvalidationMessage message )
+	{
+		switch( message.getScope( ) )
+		{
+			case MenusInvalidationMessage.SCOPE_PAGE :
+			case MenusInvalidationMessage.SCOPE_SITE :
+			case MenusInvalidationMessage.SCOPE_CUSTOM_MENUS :
+				// The current generation keeps serving until the next one is built
+				_menuGenerationService.requestRebuild( message );
+				break;
+			case MenusInvalidationMessage.SCOPE_MAIN_MENU :
+				// Only the main menu entry depends on the main menu depth
+				if( _mainTreeMenuCacheService.isCacheEnable( ) )
+				{
+					_mainTreeMenuCacheService.remove( _mainTreeMenuCacheService.getMainMenuCacheKey( ) );
+				}
+				break;
+			case MenusInvalidationMessage.SCOPE_TREE_MENUS :
+				if( _mainTreeMenuCacheService.isCacheEnable( ) )
+				{
+					_mainTreeMenuCacheService.resetCache( );
+				}
+				break;
+			case MenusInvalidationMessage.SCOPE_ALL_PAGES_MENUS :
+				if( _mainTreeMenuAllPagesCacheService.isCacheEnable( ) )
+				{
+					_mainTreeMenuAllPagesCacheService.resetCache( );
+				}
+				break;
+			case MenusInvalidationMessage.SCOPE_MENUS :
+				_menusRegistryService.invalidate( );
+				break;
+			case MenusInvalidationMessage.SCOPE_PORTAL_PAGES :
+				invalidatePortalPages( );
+				break;
+			default :
+				AppLogService.info( "MenuCacheInvalidationService.apply() : unknown scope " + message.getScope( ) );
+		}
+	}
+
+	/**
+	 * Evict the menu tree cache entries affected by a change of a page
+	 * 
+	 * @param nPageId
+	 *                 The changed page identifier
+	 * @param previous
+	 *                 The snapshot before the change, may be null
+	 * @param current
+	 *                 The snapshot after the change
+	 */
+	public void invalidatePage( int nPageId, SiteTreeSnapshot previous, SiteTreeSnapshot current )
+	{
+		invalidatePages( List.of( nPageId ), previous, current );
+	}
+
+	/**
+	 * Evict the menu tree cache entries affected by a change of several pages
+	 * 
+	 * @param listPageIds
+	 *                    The changed page identifiers
+	 * @param previous
+	 *                    The snapshot before the changes, may be null
+	 * @param current
+	 *                    The snapshot after the changes
+	 */
+	public void invalidatePages( Collection < Integer > listPageIds, SiteTreeSnapshot previous,
+			SiteTreeSnapshot current )
+	{
+		Set < Integer > setPageIds = new HashSet <>( );
+
+		for( int nPageId : listPageIds )
+		{
+			setPageIds.add( nPageId );
+			collectRelatedPages( previous, nPageId, setPageIds );
+			collectRelatedPages( current, nPageId, setPageIds );
+		}
+
+		int nRootId = PortalService.getRootPageId( );
+
+		if( setPageIds.contains( nRootId ) )
+		{
+			// The home page is also displayed with page_id=0
+			setPageIds.add( 0 );
+		}
+
+		if( _mainTreeMenuCacheService.isCacheEnable( ) )
+		{
+			_mainTreeMenuCacheService.remove( _mainTreeMenuCacheService.getMainMenuCacheKey( ) );
+
+			for( Integer nId : setPageIds )
+			{
+				_mainTreeMenuCacheService.remove( _mainTreeMenuCacheService.getMenuTreeCacheKey( nId ) );
+			}
+		}
+
+		if( _mainTreeMenuAllPagesCacheService.isCacheEnable( ) )
+		{
+			// The all pages tree is the same for every page and holds a single entry
+			_mainTreeMenuAllPagesCacheService.remove( _mainTreeMenuAllPagesCacheService.getMainMenuCacheKey( ) );
+			_mainTreeMenuAllPagesCacheService
+					.remove( _mainTreeMenuAllPagesCacheService.getMenuTreeCacheKey( nRootId ) );
+		}
+
+		_menuTreePayloadService.invalidate( );
+		invalidateFragments( );
+	}
+
+	/**
+	 * Evict all the menu tree cache entries
+	 */
+	public void invalidateAll( )
+	{
+		if( _mainTreeMenuCacheService.isCacheEnable( ) )
+		{
+			_mainTreeMenuCacheService.resetCache( );
+		}
+
+		if( _mainTreeMenuAllPagesCacheService.isCacheEnable( ) )
+		{
+			_mainTreeMenuAllPagesCacheService.resetCache( );
+		}
+
+		_menuTreePayloadService.invalidate( );
+		invalidateFragments( );
+	}
+
+	/**
+	 * Evict all the rendered menu fragments
+	 */
+	public void invalidateFragments( )
+	{
+		if( _fragmentCacheService.isCacheEnable( ) )
+		{
+			_fragmentCacheService.resetCache( );
+		}
+	}
+
+	/**
+	 * Evict the rendered menu fragments and the cached portal pages
+	 */
+	public void invalidatePortalPages( )
+	{
+		invalidateFragments( );
+
+		CacheableService < String, String > cs = _manageCacheService.getCache( NAME_PAGE_SERVICE_CACHE );
+
+		if( cs != null )
+		{
+			cs.resetCache( );
+		}
+	}
+
+	/**
+	 * Add the ancestors and the descendants of a page to a set of page ids
+	 * 
+	 * @param snapshot
+	 *                   The site tree snapshot, may be null
+	 * @param nPageId
+	 *                   The page identifier
+	 * @param setPageIds
+	 *                   The set to fill
+	 */
+	private static void collectRelatedPages( SiteTreeSnapshot snapshot, int nPageId, Set < Integer > setPageIds )
+	{
+		if( snapshot == null )
+		{
+			return;
+		}
+
+		int nIndex = snapshot.indexOf( nPageId );
+
+		if( nIndex == SiteTreeSnapshot.NONE )
+		{
+			return;
+		}
+
+		// The number of steps of both walks is bounded in case the parent links loop
+		int nMaxSteps = snapshot.size( );
+		int nSteps = 0;
+
+		for( int nParent = snapshot.getParent( nIndex ) ; nParent != SiteTreeSnapshot.NONE && nSteps < nMaxSteps ;
+				nParent = snapshot.getParent( nParent ) )
+		{
+			setPageIds.add( snapshot.getPageId( nParent ) );
+			nSteps ++ ;
+		}
+
+		Deque < Integer > stack = new ArrayDeque <>( );
+		stack.push( nIndex );
+		nSteps = 0;
+
+		while( ! stack.isEmpty( ) && nSteps ++ < nMaxSteps )
+		{
+			int nCurrent = stack.pop( );
+			setPageIds.add( snapshot.getPageId( nCurrent ) );
+
+			for( int nChild = snapshot.getFirstChild( nCurrent ) ; nChild != SiteTreeSnapshot.NONE ;
+					nChild = snapshot.getNextSibling( nChild ) )
+			{
+				stack.push( nChild );
+			}
+		}
+	}
+}
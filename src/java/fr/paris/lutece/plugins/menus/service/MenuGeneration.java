@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.CustomMenu;
+import fr.paris.lutece.plugins.menus.business.CustomMenuItem;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+
+import java.util.List;
+
+/**
+ * MenuGeneration
+ * 
+ * <p>
+ * An immutable, versioned state of the menus : the site tree snapshot and the
+ * custom menus graph, with its labels resolved against this snapshot. A
+ * generation is never modified; {@link MenuGenerationService} builds the next
+ * one when the data change and swaps it in at once.
+ * </p>
+ */
+public final class MenuGeneration
+{
+	private final long _lVersion;
+	private final SiteTreeSnapshot _snapshot;
+	private final List < CustomMenu > _listMenus;
+	private final List < CustomMenuItem > _listItems;
+	private final List < CustomMenu > _listCustomMenus;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param lVersion
+	 *                        The version of the generation
+	 * @param snapshot
+	 *                        The site tree snapshot
+	 * @param listMenus
+	 *                        The custom menus, as loaded from the database
+	 * @param listItems
+	 *                        The custom menu items, as loaded from the database
+	 * @param listCustomMenus
+	 *                        The resolved custom menus graph
+	 */
+	MenuGeneration( long lVersion, SiteTreeSnapshot snapshot, List < CustomMenu > listMenus,
+			List < CustomMenuItem > listItems, List < CustomMenu > listCustomMenus )
+	{
+		_lVersion = lVersion;
+		_snapshot = snapshot;
+		_listMenus = listMenus;
+		_listItems = listItems;
+		_listCustomMenus = listCustomMenus;
+	}
+
+	/**
+	 * Returns the version of the generation
+	 * 
+	 * @return the version
+	 */
+	public long getVersion( )
+	{
+		return _lVersion;
+	}
+
+	/**
+	 * Returns the site tree snapshot
+	 * 
+	 * @return the snapshot
+	 */
+	public SiteTreeSnapshot getSnapshot( )
+	{
+		return _snapshot;
+	}
+
+	/**
+	 * Returns the custom menus with their items and sub-menus
+	 * 
+	 * @return the custom menus, in the order of the database
+	 */
+	public List < CustomMenu > getCustomMenus( )
+	{
+		return _listCustomMenus;
+	}
+
+	/**
+	 * Returns the custom menus as loaded from the database, reused when only the
+	 * pages change
+	 * 
+	 * @return the custom menus
+	 */
+	List < CustomMenu > getMenuRows( )
+	{
+		return _listMenus;
+	}
+
+	/**
+	 * Returns the custom menu items as loaded from the database, reused when only
+	 * the pages change
+	 * 
+	 * @return the custom menu items
+	 */
+	List < CustomMenuItem > getItemRows( )
+	{
+		return _listItems;
+	}
+}
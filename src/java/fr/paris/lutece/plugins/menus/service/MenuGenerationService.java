@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.CustomMenu;
+import fr.paris.lutece.plugins.menus.business.CustomMenuHome;
+import fr.paris.lutece.plugins.menus.business.CustomMenuItem;
+import fr.paris.lutece.plugins.menus.business.CustomMenuItemHome;
+import fr.paris.lutece.plugins.menus.business.MenusInvalidationMessage;
+import fr.paris.lutece.plugins.menus.business.PageTreeHome;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MenuGenerationService
+ * 
+ * <p>
+ * Holds the current {@link MenuGeneration}. When pages or custom menus change,
+ * the changes are queued and a background builder creates the next generation
+ * while the current one keeps serving the requests. The new generation is then
+ * swapped in through a volatile reference, and only afterwards are the menu
+ * caches depending on the changed data evicted. The changes queued while a
+ * generation is being built are coalesced into the following one. When a build
+ * fails, its changes are queued again and the build is retried after a growing
+ * delay, a limited number of times.
+ * </p>
+ */
+@ApplicationScoped
+public class MenuGenerationService
+{
+	// Properties
+	private static final String PROPERTY_ASYNC = "menus.generation.async";
+	private static final String PROPERTY_RETRY_MAX = "menus.generation.retry.max";
+	private static final String PROPERTY_RETRY_DELAY = "menus.generation.retry.delay";
+
+	private static final int DEFAULT_RETRY_MAX = 5;
+	private static final int DEFAULT_RETRY_DELAY = 1000;
+
+	private static final String THREAD_NAME = "menus-generation-builder";
+
+	@Inject
+	private CustomMenuGraphLoader _customMenuGraphLoader;
+
+	@Inject
+	private MenuCacheInvalidationService _menuCacheInvalidationService;
+
+	private final ScheduledExecutorService _builder = Executors.newSingleThreadScheduledExecutor( runnable -> {
+		Thread thread = new Thread( runnable, THREAD_NAME );
+		thread.setDaemon( true );
+
+		return thread;
+	} );
+
+	private volatile MenuGeneration _generation;
+	private final Object _pendingLock = new Object( );
+	private Changes _pending;
+	private boolean _bScheduled;
+	private int _nFailures;
+
+	/**
+	 * Returns the current generation, building the first one if needed
+	 * 
+	 * @return the generation
+	 */
+	public MenuGeneration getGeneration( )
+	{
+		MenuGeneration generation = _generation;
+
+		if( generation == null )
+		{
+			synchronized( this )
+			{
+				generation = _generation;
+
+				if( generation == null )
+				{
+					generation = build( null, true, true );
+					_generation = generation;
+				}
+			}
+		}
+
+		return generation;
+	}
+
+	/**
+	 * Returns the version of the current generation
+	 * 
+	 * @return the version
+	 */
+	public long getVersion( )
+	{
+		return getGeneration( ).getVersion( );
+	}
+
+	/**
+	 * Queue the change described by an invalidation message and schedule the
+	 * build of the next generation, unless a build is already scheduled
+	 * 
+	 * @param message
+	 *                The invalidation message, of scope page, site or custom
+	 *                menus
+	 */
+	public void requestRebuild( MenusInvalidationMessage message )
+	{
+		boolean bSchedule;
+
+		synchronized( _pendingLock )
+		{
+			if( _pending == null )
+			{
+				_pending = new Changes( );
+			}
+
+			_pending.add( message );
+
+			// A new change gets the retries of the failed builds again
+			_nFailures = 0;
+			bSchedule = ! _bScheduled;
+			_bScheduled = true;
+		}
+
+		if( bSchedule )
+		{
+			schedule( );
+		}
+	}
+
+	/**
+	 * Run the builder in the background, or in the calling thread if the
+	 * asynchronous build is disabled
+	 */
+	private void schedule( )
+	{
+		if( isAsync( ) )
+		{
+			try
+			{
+				_builder.execute( this::buildPending );
+
+				return;
+			}
+			catch( RejectedExecutionException e )
+			{
+				AppLogService.info( "MenuGenerationService : builder stopped, building in the calling thread" );
+			}
+		}
+
+		buildPending( );
+	}
+
+	/**
+	 * Build the next generation from the queued changes, swap it in and evict the
+	 * caches depending on the changed data. The portal pages are evicted too when
+	 * the whole site or the custom menus changed, since the pages rendered before
+	 * the swap hold the menus of the previous generation.
+	 */
+	private void buildPending( )
+	{
+		Changes changes;
+
+		synchronized( _pendingLock )
+		{
+			changes = _pending;
+			_pending = null;
+			_bScheduled = false;
+		}
+
+		if( changes == null )
+		{
+			return;
+		}
+
+		try
+		{
+			MenuGeneration previous;
+			MenuGeneration current;
+
+			synchronized( this )
+			{
+				previous = _generation;
+
+				if( previous == null )
+				{
+					// Nothing was served yet, the first generation will load the current data
+					return;
+				}
+
+				current = build( previous, changes.isPagesChanged( ), changes._bCustomMenus );
+				_generation = current;
+			}
+
+			if( changes._bSite )
+			{
+				_menuCacheInvalidationService.invalidateAll( );
+			}
+			else if( ! changes._setPageIds.isEmpty( ) )
+			{
+				_menuCacheInvalidationService.invalidatePages( changes._setPageIds, previous.getSnapshot( ),
+						current.getSnapshot( ) );
+			}
+
+			if( changes._bSite || changes._bCustomMenus )
+			{
+				// Also evicts the rendered fragments, which is all a custom menus change needs
+				_menuCacheInvalidationService.invalidatePortalPages( );
+			}
+
+			synchronized( _pendingLock )
+			{
+				_nFailures = 0;
+			}
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( "MenuGenerationService : unable to build the next menu generation", e );
+			retry( changes );
+		}
+	}
+
+	/**
+	 * Queue again the changes of a failed build and schedule a retry after a
+	 * delay doubled on each failure. Once the retries are exhausted, or if the
+	 * build runs in the calling thread, the changes wait for the next change.
+	 * 
+	 * @param changes
+	 *                The changes of the failed build
+	 */
+	private void retry( Changes changes )
+	{
+		long lDelay = 0;
+
+		synchronized( _pendingLock )
+		{
+			if( _pending == null )
+			{
+				_pending = changes;
+			}
+			else
+			{
+				_pending.addAll( changes );
+			}
+
+			_nFailures++ ;
+
+			if( ! _bScheduled && isAsync( )
+					&& _nFailures <= AppPropertiesService.getPropertyInt( PROPERTY_RETRY_MAX, DEFAULT_RETRY_MAX ) )
+			{
+				_bScheduled = true;
+				lDelay = ( long ) AppPropertiesService.getPropertyInt( PROPERTY_RETRY_DELAY, DEFAULT_RETRY_DELAY )
+						<< Math.min( _nFailures - 1, 10 );
+			}
+		}
+
+		if( lDelay > 0 )
+		{
+			try
+			{
+				_builder.schedule( this::buildPending, lDelay, TimeUnit.MILLISECONDS );
+			}
+			catch( RejectedExecutionException e )
+			{
+				AppLogService.info( "MenuGenerationService : builder stopped, the menu generation is not retried" );
+
+				synchronized( _pendingLock )
+				{
+					_bScheduled = false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return if the generations are built in the background
+	 * 
+	 * @return true if the builds are asynchronous
+	 */
+	private static boolean isAsync( )
+	{
+		return AppPropertiesService.getPropertyBoolean( PROPERTY_ASYNC, true );
+	}
+
+	/**
+	 * Build a generation, reusing the parts of the previous one that didn't change
+	 * 
+	 * @param previous
+	 *                     The previous generation, or null
+	 * @param bPages
+	 *                     true if the pages must be reloaded
+	 * @param bCustomMenus
+	 *                     true if the custom menus must be reloaded
+	 * @return the new generation
+	 */
+	private MenuGeneration build( MenuGeneration previous, boolean bPages, boolean bCustomMenus )
+	{
+		SiteTreeSnapshot snapshot = ( previous == null || bPages )
+				? SiteTreeSnapshot.build( PageTreeHome.findAllPages( ) )
+				: previous.getSnapshot( );
+		List < CustomMenu > listMenus;
+		List < CustomMenuItem > listItems;
+
+		if( previous == null || bCustomMenus )
+		{
+			listMenus = CustomMenuHome.getCustomMenusList( );
+			listItems = CustomMenuItemHome.getCustomMenuItemsList( );
+		}
+		else
+		{
+			listMenus = previous.getMenuRows( );
+			listItems = previous.getItemRows( );
+		}
+
+		// The dynamic labels are page titles, so the graph is resolved again whenever the pages change
+		List < CustomMenu > listCustomMenus = _customMenuGraphLoader.buildGraph( listMenus, listItems, snapshot );
+		long lVersion = ( previous == null ) ? 1 : previous.getVersion( ) + 1;
+
+		return new MenuGeneration( lVersion, snapshot, listMenus, listItems, listCustomMenus );
+	}
+
+	/**
+	 * Stop the builder
+	 */
+	@PreDestroy
+	void shutdown( )
+	{
+		_builder.shutdownNow( );
+	}
+
+	/**
+	 * The changes queued for the next generation
+	 */
+	private static final class Changes
+	{
+		private final Set < Integer > _setPageIds = new HashSet <>( );
+		private boolean _bSite;
+		private boolean _bCustomMenus;
+
+		/**
+		 * Add the change of an invalidation message
+		 * 
+		 * @param message
+		 *                The invalidation message
+		 */
+		void add( MenusInvalidationMessage message )
+		{
+			switch( message.getScope( ) )
+			{
+				case MenusInvalidationMessage.SCOPE_PAGE :
+					_setPageIds.add( message.getPageId( ) );
+					break;
+				case MenusInvalidationMessage.SCOPE_SITE :
+					_bSite = true;
+					break;
+				case MenusInvalidationMessage.SCOPE_CUSTOM_MENUS :
+					_bCustomMenus = true;
+					break;
+				default :
+					break;
+			}
+		}
+
+		/**
+		 * Add the changes of a failed build
+		 * 
+		 * @param changes
+		 *                The changes to add
+		 */
+		void addAll( Changes changes )
+		{
+			_setPageIds.addAll( changes._setPageIds );
+			_bSite |= changes._bSite;
+			_bCustomMenus |= changes._bCustomMenus;
+		}
+
+		/**
+		 * Return if the pages must be reloaded
+		 * 
+		 * @return true if a page or the whole site changed
+		 */
+		boolean isPagesChanged( )
+		{
+			return _bSite || ! _setPageIds.isEmpty( );
+		}
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * The response of the menu tree endpoint. The tree is written straight from
+ * the site tree snapshot to the JSON generator : each page is serialized once,
+ * without building a JSON tree.
+ */
+public final class MenuTreeJson implements JsonSerializable
+{
+	// Format constants
+	private static final String KEY_MENUS_STATUS_RESPONSE = "status";
+	private static final String KEY_MENUS_RESPONSE_RESULT = "result";
+	private static final String KEY_ROOT_MENU_PAGES = "root_menu_pages";
+	private static final String KEY_MENU_PAGES = "menu_pages";
+	private static final String KEY_PAGE_PARENT_ID = "parentId";
+	private static final String KEY_PAGE_ID = "id";
+	private static final String KEY_PAGE_NAME = "name";
+	private static final String KEY_PAGE_DESC = "description";
+	private static final String KEY_PAGE_FULL_LINK = "pageFullLink";
+
+	private final String _strStatus;
+	private final SiteTreeSnapshot _snapshot;
+	private final int _nRootIndex;
+	private final String _strPageFullLink;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param strStatus
+	 *                        The status of the response
+	 * @param snapshot
+	 *                        The site tree snapshot, or null if there is no
+	 *                        result
+	 * @param nRootIndex
+	 *                        The index of the root page in the snapshot, or
+	 *                        {@link SiteTreeSnapshot#NONE} if there is no result
+	 * @param strPageFullLink
+	 *                        The link of the pages, without the page id
+	 */
+	public MenuTreeJson( String strStatus, SiteTreeSnapshot snapshot, int nRootIndex, String strPageFullLink )
+	{
+		_strStatus = strStatus;
+		_snapshot = snapshot;
+		_nRootIndex = nRootIndex;
+		_strPageFullLink = strPageFullLink;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void serialize( JsonGenerator generator, SerializerProvider provider ) throws IOException
+	{
+		generator.writeStartObject( );
+		generator.writeStringField( KEY_MENUS_STATUS_RESPONSE, _strStatus );
+
+		if( _snapshot != null && _nRootIndex != SiteTreeSnapshot.NONE )
+		{
+			generator.writeObjectFieldStart( KEY_MENUS_RESPONSE_RESULT );
+			generator.writeFieldName( KEY_ROOT_MENU_PAGES );
+			writeChildPages( generator, _nRootIndex );
+			generator.writeEndObject( );
+		}
+
+		generator.writeEndObject( );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void serializeWithType( JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSer )
+			throws IOException
+	{
+		WritableTypeId typeId = typeSer.writeTypePrefix( generator,
+				typeSer.typeId( this, JsonToken.START_OBJECT ) );
+		serialize( generator, provider );
+		typeSer.writeTypeSuffix( generator, typeId );
+	}
+
+	/**
+	 * Write the child pages of a page and their own child pages
+	 * 
+	 * @param generator
+	 *                  The JSON generator
+	 * @param nIndex
+	 *                  The index of the page
+	 * @throws IOException
+	 *                     if the tree can't be written
+	 */
+	private void writeChildPages( JsonGenerator generator, int nIndex ) throws IOException
+	{
+		generator.writeStartArray( );
+
+		for( int nChild = _snapshot.getFirstChild( nIndex ) ; nChild != SiteTreeSnapshot.NONE ;
+				nChild = _snapshot.getNextSibling( nChild ) )
+		{
+			int nPageId = _snapshot.getPageId( nChild );
+
+			generator.writeStartObject( );
+			generator.writeNumberField( KEY_PAGE_ID, nPageId );
+			generator.writeNumberField( KEY_PAGE_PARENT_ID, _snapshot.getParentPageId( nChild ) );
+			generator.writeStringField( KEY_PAGE_NAME, _snapshot.getName( nChild ) );
+			generator.writeStringField( KEY_PAGE_DESC, _snapshot.getDescription( nChild ) );
+			generator.writeStringField( KEY_PAGE_FULL_LINK, _strPageFullLink + nPageId );
+			generator.writeFieldName( KEY_MENU_PAGES );
+			writeChildPages( generator, nChild );
+			generator.writeEndObject( );
+		}
+
+		generator.writeEndArray( );
+	}
+}
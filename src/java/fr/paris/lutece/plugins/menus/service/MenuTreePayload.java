@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The serialized menu tree JSON, plain and gzip compressed, with its entity
+ * tags. The arrays are shared by all the responses and must not be modified.
+ */
+public final class MenuTreePayload
+{
+	private static final String ETAG_QUOTE = "\"";
+	private static final String ETAG_SEPARATOR = "-";
+	private static final String ETAG_SUFFIX_GZIP = "-gzip";
+
+	private final long _lVersion;
+	private final byte [ ] _json;
+	private final byte [ ] _gzipJson;
+	private final String _strETag;
+	private final String _strGzipETag;
+
+	/**
+	 * Private constructor - use {@link #build(long, byte[])}
+	 * 
+	 * @param lVersion
+	 *                    the version of the menu tree
+	 * @param json
+	 *                    the JSON
+	 * @param gzipJson
+	 *                    the gzip compressed JSON
+	 * @param strETag
+	 *                    the entity tag of the JSON
+	 */
+	private MenuTreePayload( long lVersion, byte [ ] json, byte [ ] gzipJson, String strETag )
+	{
+		_lVersion = lVersion;
+		_json = json;
+		_gzipJson = gzipJson;
+		_strETag = ETAG_QUOTE + strETag + ETAG_QUOTE;
+		_strGzipETag = ETAG_QUOTE + strETag + ETAG_SUFFIX_GZIP + ETAG_QUOTE;
+	}
+
+	/**
+	 * Build the payload of a serialized menu tree
+	 * 
+	 * @param lVersion
+	 *                 the version of the menu tree
+	 * @param json
+	 *                 the JSON
+	 * @return the payload
+	 * @throws IOException
+	 *                     if the JSON can't be compressed
+	 */
+	public static MenuTreePayload build( long lVersion, byte [ ] json ) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream( json.length / 4 );
+
+		try( GZIPOutputStream gzip = new GZIPOutputStream( out ) )
+		{
+			gzip.write( json );
+		}
+
+		CRC32 crc = new CRC32( );
+		crc.update( json );
+
+		return new MenuTreePayload( lVersion, json, out.toByteArray( ),
+				Long.toHexString( lVersion ) + ETAG_SEPARATOR + Long.toHexString( crc.getValue( ) ) );
+	}
+
+	/**
+	 * Returns the version of the menu tree the payload was built from
+	 * 
+	 * @return the version
+	 */
+	public long getVersion( )
+	{
+		return _lVersion;
+	}
+
+	/**
+	 * Returns the JSON
+	 * 
+	 * @return the UTF-8 encoded JSON
+	 */
+	public byte [ ] getJson( )
+	{
+		return _json;
+	}
+
+	/**
+	 * Returns the gzip compressed JSON
+	 * 
+	 * @return the compressed JSON
+	 */
+	public byte [ ] getGzipJson( )
+	{
+		return _gzipJson;
+	}
+
+	/**
+	 * Returns the entity tag of the JSON, quoted
+	 * 
+	 * @param bGzip
+	 *              true for the compressed JSON
+	 * @return the entity tag
+	 */
+	public String getETag( boolean bGzip )
+	{
+		return bGzip ? _strGzipETag : _strETag;
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.portal.service.portal.PortalService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * MenuTreePayloadService
+ * 
+ * <p>
+ * Keeps the menu tree JSON serialized, once per page link prefix since the
+ * links depend on the base URL of the request. The version is bumped by
+ * {@link MenuCacheInvalidationService} when the menu caches are reset, and the
+ * payloads of a previous version are then built again on the next request.
+ * </p>
+ */
+@ApplicationScoped
+public class MenuTreePayloadService
+{
+	private static final String STATUS_OK = "OK";
+
+	// Bounds the number of payloads kept if the portal is reached by many host names
+	private static final int MAX_PAYLOADS = 16;
+
+	private static final ObjectMapper MAPPER = new ObjectMapper( );
+
+	@Inject
+	private SiteTreeService _siteTreeService;
+
+	private final AtomicLong _version = new AtomicLong( );
+	private final Map < String, MenuTreePayload > _mapPayloads = new ConcurrentHashMap <>( );
+
+	/**
+	 * Returns the serialized menu tree of the current version
+	 * 
+	 * @param strPageFullLink
+	 *                        The link of the pages, without the page id
+	 * @return the payload
+	 * @throws IOException
+	 *                     if the tree can't be serialized
+	 */
+	public MenuTreePayload getPayload( String strPageFullLink ) throws IOException
+	{
+		long lVersion = _version.get( );
+		MenuTreePayload payload = _mapPayloads.get( strPageFullLink );
+
+		if( payload == null || payload.getVersion( ) != lVersion )
+		{
+			SiteTreeSnapshot snapshot = _siteTreeService.getSnapshot( );
+			MenuTreeJson menuTree = new MenuTreeJson( STATUS_OK, snapshot,
+					snapshot.indexOf( PortalService.getRootPageId( ) ), strPageFullLink );
+			payload = MenuTreePayload.build( lVersion, MAPPER.writeValueAsBytes( menuTree ) );
+
+			if( _mapPayloads.size( ) >= MAX_PAYLOADS )
+			{
+				_mapPayloads.clear( );
+			}
+
+			_mapPayloads.put( strPageFullLink, payload );
+		}
+
+		return payload;
+	}
+
+	/**
+	 * Returns the current version of the menu tree
+	 * 
+	 * @return the version
+	 */
+	public long getVersion( )
+	{
+		return _version.get( );
+	}
+
+	/**
+	 * Bump the version, so that the payloads are built again
+	 */
+	public void invalidate( )
+	{
+		_version.incrementAndGet( );
+		_mapPayloads.clear( );
+	}
+}
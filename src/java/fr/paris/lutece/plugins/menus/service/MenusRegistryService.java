@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.Menus;
+import fr.paris.lutece.plugins.menus.business.MenusEvent;
+import fr.paris.lutece.plugins.menus.business.MenusHome;
+import fr.paris.lutece.plugins.menus.business.MenusInvalidationMessage;
+import fr.paris.lutece.plugins.menus.service.invalidation.MenusInvalidationBus;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MenusRegistryService
+ * 
+ * <p>
+ * Keeps the {@link Menus} definitions indexed by menu type, so the page
+ * includes don't scan the menus table on every request. The registry is loaded
+ * on first use and reloaded on every node whenever {@link MenusHome} writes a
+ * menu.
+ * </p>
+ */
+@ApplicationScoped
+public class MenusRegistryService
+{
+	@Inject
+	private MenuCacheInvalidationService _menuCacheInvalidationService;
+
+	@Inject
+	private MenusInvalidationBus _menusInvalidationBus;
+
+	private volatile Registry _registry;
+
+	/**
+	 * Returns the menus of a given type
+	 * 
+	 * @param strMenuType
+	 *                    The menu type
+	 * @return the menus of this type, never null
+	 */
+	public List < Menus > getMenusByType( String strMenuType )
+	{
+		return getRegistry( ).getByType( strMenuType );
+	}
+
+	/**
+	 * Returns the menus whose type starts with a given prefix
+	 * 
+	 * @param strPrefix
+	 *                  The prefix of the menu type
+	 * @return the menus whose type starts with the prefix, never null
+	 */
+	public List < Menus > getMenusByTypePrefix( String strPrefix )
+	{
+		return getRegistry( ).getByTypePrefix( strPrefix );
+	}
+
+	/**
+	 * Reload the registry on every node when a menu is created, updated or removed
+	 * 
+	 * @param event
+	 *              the menus event
+	 */
+	public void processMenusEvent( @Observes MenusEvent event )
+	{
+		_menusInvalidationBus.invalidate( MenusInvalidationMessage.SCOPE_MENUS );
+	}
+
+	/**
+	 * Drop the registry and the rendered menus. The registry is reloaded on next
+	 * use.
+	 */
+	public void invalidate( )
+	{
+		synchronized( this )
+		{
+			_registry = null;
+		}
+
+		_menuCacheInvalidationService.invalidateFragments( );
+	}
+
+	/**
+	 * Returns the current registry, loading it if needed
+	 * 
+	 * @return the registry
+	 */
+	private Registry getRegistry( )
+	{
+		Registry registry = _registry;
+
+		if( registry == null )
+		{
+			synchronized( this )
+			{
+				registry = _registry;
+
+				if( registry == null )
+				{
+					registry = new Registry( MenusHome.findAll( ) );
+					_registry = registry;
+				}
+			}
+		}
+
+		return registry;
+	}
+
+	/**
+	 * Immutable index of the menus by type
+	 */
+	private static final class Registry
+	{
+		private final Map < String, List < Menus > > _mapByType;
+		private final Map < String, List < Menus > > _mapByTypePrefix = new ConcurrentHashMap <>( );
+
+		/**
+		 * Constructor
+		 * 
+		 * @param listMenus
+		 *                  All the menus
+		 */
+		Registry( Collection < Menus > listMenus )
+		{
+			Map < String, List < Menus > > mapByType = new HashMap <>( );
+
+			for( Menus menus : listMenus )
+			{
+				if( menus.getMenuType( ) != null )
+				{
+					mapByType.computeIfAbsent( menus.getMenuType( ), k -> new ArrayList <>( ) ).add( menus );
+				}
+			}
+
+			mapByType.replaceAll( ( strType, list ) -> Collections.unmodifiableList( list ) );
+			_mapByType = mapByType;
+		}
+
+		/**
+		 * Returns the menus of a type
+		 * 
+		 * @param strMenuType
+		 *                    The menu type
+		 * @return the menus
+		 */
+		List < Menus > getByType( String strMenuType )
+		{
+			return _mapByType.getOrDefault( strMenuType, Collections.emptyList( ) );
+		}
+
+		/**
+		 * Returns the menus whose type starts with a prefix. The result is computed
+		 * once per prefix.
+		 * 
+		 * @param strPrefix
+		 *                  The prefix
+		 * @return the menus
+		 */
+		List < Menus > getByTypePrefix( String strPrefix )
+		{
+			return _mapByTypePrefix.computeIfAbsent( strPrefix, this::findByTypePrefix );
+		}
+
+		/**
+		 * Scan the types for a prefix
+		 * 
+		 * @param strPrefix
+		 *                  The prefix
+		 * @return the menus
+		 */
+		private List < Menus > findByTypePrefix( String strPrefix )
+		{
+			List < Menus > listMenus = new ArrayList <>( );
+
+			for( Map.Entry < String, List < Menus > > entry : _mapByType.entrySet( ) )
+			{
+				if( entry.getKey( ).startsWith( strPrefix ) )
+				{
+					listMenus.addAll( entry.getValue( ) );
+				}
+			}
+
+			return Collections.unmodifiableList( listMenus );
+		}
+	}
+}
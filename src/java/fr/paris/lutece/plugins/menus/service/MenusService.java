@@ -41,6 +41,7 @@ import jakarta.enterprise.context.Initialized;
 import jakarta.enterprise.event.Observes;
 import jakarta.enterprise.inject.spi.CDI;
 import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * This Service manages contactListt actions (create, delete, modify ...) and
@@ -54,6 +55,7 @@ public class MenusService
 	public static final int MODE_SITE = 0;
 	public static final int MODE_ADMIN = 1;
 	public static final String MARKER_SITE_PATH = "site_path";
+	private static final String PARAMETER_PAGE_ID = "?page_id=";
 
 	/**
 	 * Initializes the Menus service
@@ -103,6 +105,18 @@ public class MenusService
 		return strSitePath;
 	}
 
+	/**
+	 * Define the absolute link of the pages of the site, without the page id
+	 * 
+	 * @param request
+	 *                The HTTP request, which gives the base URL
+	 * @return the link to append the page id to
+	 */
+	public String getPageFullLink( HttpServletRequest request )
+	{
+		return AppPathService.getBaseUrl( request ) + getSitePath( MODE_SITE ) + PARAMETER_PAGE_ID;
+	}
+
 	/**
 	 * This method observes the initialization of the {@link ApplicationScoped}
 	 * context.
@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.portal.service.init.AppInit;
+import fr.paris.lutece.portal.service.portal.PortalService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.servlet.ServletContext;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * MenusWarmupService
+ * 
+ * <p>
+ * Warms the menu caches up once the application is started, so that the first
+ * requests after a deployment don't pay for the tree builds. The menu
+ * generation, which holds the site tree and all the custom menus graphs, is
+ * built first; the main menus and the tree menus of the configured pages and
+ * of the top level pages are then built in parallel. The warm-up runs in the
+ * background. {@link #isReady()} tells the health checks when every menu has
+ * been built, and {@link #getStatus()} whether the warm-up failed or timed
+ * out.
+ * </p>
+ */
+@ApplicationScoped
+public class MenusWarmupService
+{
+	// Status constants
+	/** The warm-up is running */
+	public static final int STATUS_RUNNING = 0;
+	/** The warm-up built every menu, or is disabled */
+	public static final int STATUS_READY = 1;
+	/** The menu generation or some menus couldn't be built */
+	public static final int STATUS_FAILED = 2;
+	/** The application didn't start, or the menus weren't built, in time */
+	public static final int STATUS_TIMED_OUT = 3;
+
+	// Properties
+	private static final String PROPERTY_ENABLED = "menus.warmup.enabled";
+	private static final String PROPERTY_THREADS = "menus.warmup.threads";
+	private static final String PROPERTY_PAGES = "menus.warmup.pages";
+	private static final String PROPERTY_TOP_LEVEL_PAGES = "menus.warmup.topLevelPages";
+	private static final String PROPERTY_TIMEOUT = "menus.warmup.timeout";
+
+	private static final int DEFAULT_THREADS = 4;
+	private static final int DEFAULT_TOP_LEVEL_PAGES = 20;
+
+	// Default maximum duration of the warm-up, in seconds
+	private static final int DEFAULT_TIMEOUT = 120;
+
+	// Delay between two checks of the end of the application startup, in ms
+	private static final long STARTUP_POLL_DELAY = 500;
+
+	private static final String THREAD_NAME = "menus-warmup";
+	private static final String PAGES_SEPARATOR = ",";
+
+	@Inject
+	private MenuGenerationService _menuGenerationService;
+
+	@Inject
+	private MainTreeMenuService _mainTreeMenuService;
+
+	@Inject
+	private MainTreeMenuAllPagesService _mainTreeMenuAllPagesService;
+
+	private volatile int _nStatus = STATUS_RUNNING;
+	private final AtomicInteger _nDone = new AtomicInteger( );
+	private final AtomicInteger _nFailed = new AtomicInteger( );
+	private volatile int _nTotal;
+
+	/**
+	 * Return if the warm-up built every menu, or is disabled
+	 * 
+	 * @return true if the menus are ready to be served from the caches
+	 */
+	public boolean isReady( )
+	{
+		return _nStatus == STATUS_READY;
+	}
+
+	/**
+	 * Returns the status of the warm-up
+	 * 
+	 * @return one of the STATUS_ constants
+	 */
+	public int getStatus( )
+	{
+		return _nStatus;
+	}
+
+	/**
+	 * Returns the number of warm-up tasks
+	 * 
+	 * @return the number of tasks, 0 until they are listed
+	 */
+	public int getTotal( )
+	{
+		return _nTotal;
+	}
+
+	/**
+	 * Returns the number of warm-up tasks done, successfully or not
+	 * 
+	 * @return the number of tasks done
+	 */
+	public int getDone( )
+	{
+		return _nDone.get( );
+	}
+
+	/**
+	 * Returns the number of warm-up tasks which failed
+	 * 
+	 * @return the number of failed tasks
+	 */
+	public int getFailed( )
+	{
+		return _nFailed.get( );
+	}
+
+	/**
+	 * Warm the menu caches up in the background
+	 */
+	public void start( )
+	{
+		if( ! AppPropertiesService.getPropertyBoolean( PROPERTY_ENABLED, true ) )
+		{
+			_nStatus = STATUS_READY;
+
+			return;
+		}
+
+		Thread thread = new Thread( this::warmUp, THREAD_NAME );
+		thread.setDaemon( true );
+		thread.start( );
+	}
+
+	/**
+	 * Run the warm-up : wait for the end of the startup, build the menu
+	 * generation, then the menus in parallel
+	 */
+	void warmUp( )
+	{
+		long lStart = System.currentTimeMillis( );
+		long lDeadline = lStart + AppPropertiesService.getPropertyInt( PROPERTY_TIMEOUT, DEFAULT_TIMEOUT ) * 1000L;
+
+		try
+		{
+			// The plugin and its connection pool are only available once the webapp is loaded
+			while( ! AppInit.isWebappSuccessfullyLoaded( ) )
+			{
+				if( System.currentTimeMillis( ) > lDeadline )
+				{
+					AppLogService.error( "Menus warm-up : the application didn't start in time, warm-up skipped" );
+					_nStatus = STATUS_TIMED_OUT;
+
+					return;
+				}
+
+				Thread.sleep( STARTUP_POLL_DELAY );
+			}
+
+			SiteTreeSnapshot snapshot = _menuGenerationService.getGeneration( ).getSnapshot( );
+			Map < String, Runnable > mapTasks = listTasks( snapshot );
+			_nTotal = mapTasks.size( );
+			AppLogService.info( "Menus warm-up : menu generation built, " + _nTotal + " menus to build" );
+
+			if( ! runTasks( mapTasks, lDeadline ) )
+			{
+				_nStatus = STATUS_TIMED_OUT;
+			}
+			else
+			{
+				_nStatus = ( _nFailed.get( ) == 0 ) ? STATUS_READY : STATUS_FAILED;
+			}
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread( ).interrupt( );
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( "Menus warm-up : unable to build the menu generation", e );
+		}
+		finally
+		{
+			if( _nStatus == STATUS_RUNNING )
+			{
+				_nStatus = STATUS_FAILED;
+			}
+
+			AppLogService.info( "Menus warm-up : " + _nDone.get( ) + "/" + _nTotal + " menus built, " + _nFailed.get( )
+					+ " failed, in " + ( System.currentTimeMillis( ) - lStart ) + " ms" );
+		}
+	}
+
+	/**
+	 * List the menus to build
+	 * 
+	 * @param snapshot
+	 *                 The site tree snapshot
+	 * @return the tasks building the menus, by name
+	 */
+	private Map < String, Runnable > listTasks( SiteTreeSnapshot snapshot )
+	{
+		Map < String, Runnable > mapTasks = new LinkedHashMap <>( );
+		mapTasks.put( "main menu", _mainTreeMenuService::getMainMenuItems );
+		mapTasks.put( "all pages main menu", _mainTreeMenuAllPagesService::getMainMenuItems );
+		mapTasks.put( "all pages tree menu",
+				( ) -> _mainTreeMenuAllPagesService.getTreeMenuItems( PortalService.getRootPageId( ) ) );
+
+		for( int nPageId : listPages( snapshot ) )
+		{
+			mapTasks.put( "tree menu of page " + nPageId, ( ) -> _mainTreeMenuService.getTreeMenuItems( nPageId,
+					_mainTreeMenuService.getRootParentTree( nPageId ) ) );
+		}
+
+		return mapTasks;
+	}
+
+	/**
+	 * List the pages whose tree menu is built : the home page, the configured
+	 * pages, usually the most visited ones, and the first top level pages
+	 * 
+	 * @param snapshot
+	 *                 The site tree snapshot
+	 * @return the page identifiers
+	 */
+	private Set < Integer > listPages( SiteTreeSnapshot snapshot )
+	{
+		Set < Integer > setPageIds = new LinkedHashSet <>( );
+		int nRootId = PortalService.getRootPageId( );
+		setPageIds.add( nRootId );
+
+		for( String strPageId : StringUtils.split( AppPropertiesService.getProperty( PROPERTY_PAGES, "" ),
+				PAGES_SEPARATOR ) )
+		{
+			try
+			{
+				setPageIds.add( Integer.parseInt( strPageId.trim( ) ) );
+			}
+			catch( NumberFormatException e )
+			{
+				AppLogService.error( "Menus warm-up : invalid page id " + strPageId );
+			}
+		}
+
+		int nMaxTopLevelPages = AppPropertiesService.getPropertyInt( PROPERTY_TOP_LEVEL_PAGES, DEFAULT_TOP_LEVEL_PAGES );
+		int nRoot = snapshot.indexOf( nRootId );
+		int nCount = 0;
+
+		if( nRoot != SiteTreeSnapshot.NONE )
+		{
+			for( int nChild = snapshot.getFirstChild( nRoot ) ; nChild != SiteTreeSnapshot.NONE
+					&& nCount < nMaxTopLevelPages ; nChild = snapshot.getNextSibling( nChild ) )
+			{
+				setPageIds.add( snapshot.getPageId( nChild ) );
+				nCount ++ ;
+			}
+		}
+
+		return setPageIds;
+	}
+
+	/**
+	 * Build the menus in parallel
+	 * 
+	 * @param mapTasks
+	 *                  The tasks building the menus, by name
+	 * @param lDeadline
+	 *                  The time the warm-up must be over
+	 * @return true if every task ran before the deadline
+	 * @throws InterruptedException
+	 *                              if the warm-up is interrupted
+	 */
+	private boolean runTasks( Map < String, Runnable > mapTasks, long lDeadline ) throws InterruptedException
+	{
+		int nThreads = Math.max( 1, AppPropertiesService.getPropertyInt( PROPERTY_THREADS, DEFAULT_THREADS ) );
+		AtomicInteger nThread = new AtomicInteger( );
+		ExecutorService executor = Executors.newFixedThreadPool( nThreads, runnable -> {
+			Thread thread = new Thread( runnable, THREAD_NAME + "-" + nThread.incrementAndGet( ) );
+			thread.setDaemon( true );
+
+			return thread;
+		} );
+
+		try
+		{
+			for( Map.Entry < String, Runnable > entry : mapTasks.entrySet( ) )
+			{
+				executor.execute( ( ) -> runTask( entry.getKey( ), entry.getValue( ) ) );
+			}
+
+			executor.shutdown( );
+
+			if( ! executor.awaitTermination( Math.max( 0, lDeadline - System.currentTimeMillis( ) ),
+					TimeUnit.MILLISECONDS ) )
+			{
+				AppLogService.error( "Menus warm-up : timeout reached, the remaining menus are built on demand" );
+
+				return false;
+			}
+
+			return true;
+		}
+		finally
+		{
+			executor.shutdownNow( );
+		}
+	}
+
+	/**
+	 * Build a menu and log the progress
+	 * 
+	 * @param strName
+	 *                The name of the menu
+	 * @param task
+	 *                The task building the menu
+	 */
+	private void runTask( String strName, Runnable task )
+	{
+		try
+		{
+			task.run( );
+		}
+		catch( Exception e )
+		{
+			_nFailed.incrementAndGet( );
+			AppLogService.error( "Menus warm-up : unable to build the " + strName, e );
+		}
+
+		int nDone = _nDone.incrementAndGet( );
+		AppLogService.debug( "Menus warm-up : " + strName + " built (" + nDone + "/" + _nTotal + ")" );
+	}
+
+	/**
+	 * This method observes the initialization of the {@link ApplicationScoped}
+	 * context and starts the warm-up.
+	 *
+	 * @param context the {@link ServletContext} that is initialized. This parameter
+	 *                is observed
+	 *                and injected automatically by CDI when the
+	 *                {@link ApplicationScoped} context is initialized.
+	 */
+	public void initializedService( @Observes @Initialized( ApplicationScoped.class ) ServletContext context )
+	{
+		start( );
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * PageTitleIndexService
+ * 
+ * <p>
+ * Resolves page titles by page id from the shared {@link SiteTreeSnapshot}, so
+ * that dynamic labels of custom menu items are resolved without any database
+ * access.
+ * </p>
+ */
+@ApplicationScoped
+public class PageTitleIndexService
+{
+	@Inject
+	private SiteTreeService _siteTreeService;
+
+	/**
+	 * Returns the title of a page
+	 * 
+	 * @param nPageId
+	 *                The page identifier
+	 * @return the title of the page, or null if the page is unknown
+	 */
+	public String getTitle( int nPageId )
+	{
+		return getTitle( _siteTreeService.getSnapshot( ), nPageId );
+	}
+
+	/**
+	 * Returns the title of a page in a given snapshot
+	 * 
+	 * @param snapshot
+	 *                 The site tree snapshot
+	 * @param nPageId
+	 *                 The page identifier
+	 * @return the title of the page, or null if the page is unknown
+	 */
+	public static String getTitle( SiteTreeSnapshot snapshot, int nPageId )
+	{
+		int nIndex = snapshot.indexOf( nPageId );
+
+		if( nIndex == SiteTreeSnapshot.NONE )
+		{
+			return null;
+		}
+
+		String strName = snapshot.getName( nIndex );
+
+		return ( strName != null ) ? strName : "";
+	}
+
+	/**
+	 * Returns the title of a page
+	 * 
+	 * @param strPageId
+	 *                  The page identifier
+	 * @return the title of the page, or null if the identifier is not a known page
+	 */
+	public String getTitle( String strPageId )
+	{
+		Integer nPageId = parsePageId( strPageId );
+
+		return ( nPageId != null ) ? getTitle( nPageId ) : null;
+	}
+
+	/**
+	 * Returns the title of a page in a given snapshot
+	 * 
+	 * @param snapshot
+	 *                  The site tree snapshot
+	 * @param strPageId
+	 *                  The page identifier
+	 * @return the title of the page, or null if the identifier is not a known page
+	 */
+	public static String getTitle( SiteTreeSnapshot snapshot, String strPageId )
+	{
+		Integer nPageId = parsePageId( strPageId );
+
+		return ( nPageId != null ) ? getTitle( snapshot, nPageId ) : null;
+	}
+
+	/**
+	 * Parse a page identifier
+	 * 
+	 * @param strPageId
+	 *                  The page identifier
+	 * @return the page identifier, or null if it is not a number
+	 */
+	private static Integer parsePageId( String strPageId )
+	{
+		if( strPageId == null )
+		{
+			return null;
+		}
+
+		try
+		{
+			return Integer.parseInt( strPageId.trim( ) );
+		}
+		catch( NumberFormatException e )
+		{
+			return null;
+		}
+	}
+}
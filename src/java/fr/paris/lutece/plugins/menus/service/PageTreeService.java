@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.MenuItem;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.plugins.menus.service.cache.SubtreeCache;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * PageTreeService
+ * 
+ * <p>
+ * Builds the menu trees from the shared {@link SiteTreeSnapshot}, instead of
+ * querying the child pages of each page one by one. The subtrees are frozen and
+ * shared between the returned trees through a {@link SubtreeCache} bound to the
+ * current snapshot.
+ * </p>
+ */
+@ApplicationScoped
+public class PageTreeService
+{
+	@Inject
+	private SiteTreeService _siteTreeService;
+
+	private volatile SubtreeCache _subtreeCache;
+
+	/**
+	 * Build the menu tree of the children of a page
+	 * 
+	 * @param nPageId
+	 *                The page identifier
+	 * @param nDepth
+	 *                The number of levels to build
+	 * @return a MenuItem without page, whose children are the child pages of the
+	 *         given page
+	 */
+	public MenuItem getChildMenuTree( int nPageId, int nDepth )
+	{
+		SubtreeCache subtreeCache = getSubtreeCache( );
+		MenuItem root = new MenuItem( );
+		int nIndex = subtreeCache.getSnapshot( ).indexOf( nPageId );
+
+		if( nIndex != SiteTreeSnapshot.NONE )
+		{
+			subtreeCache.addChildren( root, nIndex, nDepth );
+		}
+
+		return root.freeze( );
+	}
+
+	/**
+	 * Build the menu tree of a page
+	 * 
+	 * @param nPageId
+	 *                The page identifier
+	 * @param nDepth
+	 *                The number of levels of child pages to build
+	 * @return a MenuItem for the given page with its child pages, or null if the
+	 *         page doesn't exist
+	 */
+	public MenuItem getPageMenuTree( int nPageId, int nDepth )
+	{
+		SubtreeCache subtreeCache = getSubtreeCache( );
+		int nIndex = subtreeCache.getSnapshot( ).indexOf( nPageId );
+
+		if( nIndex == SiteTreeSnapshot.NONE )
+		{
+			return null;
+		}
+
+		return subtreeCache.getSubtree( nIndex, nDepth );
+	}
+
+	/**
+	 * Returns the subtree cache of the current snapshot, replacing it when the
+	 * snapshot has changed
+	 * 
+	 * @return the subtree cache
+	 */
+	private SubtreeCache getSubtreeCache( )
+	{
+		SiteTreeSnapshot snapshot = _siteTreeService.getSnapshot( );
+		SubtreeCache subtreeCache = _subtreeCache;
+
+		if( subtreeCache == null || subtreeCache.getSnapshot( ) != snapshot )
+		{
+			subtreeCache = new SubtreeCache( snapshot );
+			_subtreeCache = subtreeCache;
+		}
+
+		return subtreeCache;
+	}
+}
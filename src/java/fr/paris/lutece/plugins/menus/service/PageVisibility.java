@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+
+import java.util.BitSet;
+
+/**
+ * The pages of a {@link SiteTreeSnapshot} visible by the users having a given
+ * set of the roles restricting pages. It is shared by all these users.
+ */
+public final class PageVisibility
+{
+	private final SiteTreeSnapshot _snapshot;
+	private final String _strKey;
+	private final BitSet _visiblePages;
+
+	/**
+	 * Private constructor - use {@link #build(SiteTreeSnapshot, String, BitSet)}
+	 * 
+	 * @param snapshot
+	 *                     the site tree snapshot
+	 * @param strKey
+	 *                     the key of the set of roles
+	 * @param visiblePages
+	 *                     the indexes of the visible pages
+	 */
+	private PageVisibility( SiteTreeSnapshot snapshot, String strKey, BitSet visiblePages )
+	{
+		_snapshot = snapshot;
+		_strKey = strKey;
+		_visiblePages = visiblePages;
+	}
+
+	/**
+	 * Build the visibility of the pages for a set of roles
+	 * 
+	 * @param snapshot
+	 *                     the site tree snapshot
+	 * @param strKey
+	 *                     the key of the set of roles
+	 * @param grantedRoles
+	 *                     the numbers of the granted roles, or null if all the
+	 *                     pages are visible
+	 * @return the visibility of the pages
+	 */
+	public static PageVisibility build( SiteTreeSnapshot snapshot, String strKey, BitSet grantedRoles )
+	{
+		BitSet visiblePages = new BitSet( snapshot.size( ) );
+
+		for( int i = 0 ; i < snapshot.size( ) ; i ++ )
+		{
+			int nRoleId = snapshot.getRoleId( i );
+
+			if( grantedRoles == null || nRoleId == SiteTreeSnapshot.NONE || grantedRoles.get( nRoleId ) )
+			{
+				visiblePages.set( i );
+			}
+		}
+
+		return new PageVisibility( snapshot, strKey, visiblePages );
+	}
+
+	/**
+	 * Returns the snapshot the visibility was built from
+	 * 
+	 * @return the snapshot
+	 */
+	public SiteTreeSnapshot getSnapshot( )
+	{
+		return _snapshot;
+	}
+
+	/**
+	 * Returns the key of the set of roles. Users with the same key see the same
+	 * pages.
+	 * 
+	 * @return the key
+	 */
+	public String getKey( )
+	{
+		return _strKey;
+	}
+
+	/**
+	 * Tells if a page is visible
+	 * 
+	 * @param nIndex
+	 *               the page index in the snapshot
+	 * @return true if the page is visible
+	 */
+	public boolean isVisible( int nIndex )
+	{
+		return _visiblePages.get( nIndex );
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.portal.service.security.SecurityService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PageVisibilityService
+ * 
+ * <p>
+ * Provides the pages visible by the current user. The user is checked once per
+ * request against each role restricting a page, instead of once per displayed
+ * page, and the resulting {@link PageVisibility} is shared by all the users
+ * granted the same roles, until the site tree changes.
+ * </p>
+ */
+@ApplicationScoped
+public class PageVisibilityService
+{
+	private static final String ATTRIBUTE_PAGE_VISIBILITY = "menus.pageVisibility";
+	private static final String KEY_ALL_PAGES = "all";
+	private static final String KEY_ROLES_PREFIX = "roles:";
+	private static final String ROLES_SEPARATOR = ",";
+
+	@Inject
+	private SiteTreeService _siteTreeService;
+
+	private volatile Views _views;
+
+	/**
+	 * Returns the pages visible by the user of a request
+	 * 
+	 * @param request
+	 *                The HTTP request
+	 * @return the visibility of the pages
+	 */
+	public PageVisibility getVisibility( HttpServletRequest request )
+	{
+		SiteTreeSnapshot snapshot = _siteTreeService.getSnapshot( );
+
+		if( request.getAttribute( ATTRIBUTE_PAGE_VISIBILITY ) instanceof PageVisibility visibility
+				&& visibility.getSnapshot( ) == snapshot )
+		{
+			return visibility;
+		}
+
+		Views views = _views;
+
+		if( views == null || views._snapshot != snapshot )
+		{
+			views = new Views( snapshot );
+			_views = views;
+		}
+
+		PageVisibility visibility;
+
+		if( ! SecurityService.isAuthenticationEnable( ) )
+		{
+			visibility = views._mapVisibilities.computeIfAbsent( KEY_ALL_PAGES,
+					k -> PageVisibility.build( snapshot, k, null ) );
+		}
+		else
+		{
+			BitSet grantedRoles = new BitSet( );
+			StringBuilder sbKey = new StringBuilder( KEY_ROLES_PREFIX );
+
+			for( int nRoleId = 0 ; nRoleId < snapshot.getRestrictingRoleCount( ) ; nRoleId ++ )
+			{
+				String strRole = snapshot.getRestrictingRole( nRoleId );
+
+				if( SecurityService.getInstance( ).isUserInRole( request, strRole ) )
+				{
+					grantedRoles.set( nRoleId );
+					sbKey.append( ( sbKey.length( ) > KEY_ROLES_PREFIX.length( ) ) ? ROLES_SEPARATOR : "" )
+							.append( strRole );
+				}
+			}
+
+			visibility = views._mapVisibilities.computeIfAbsent( sbKey.toString( ),
+					k -> PageVisibility.build( snapshot, k, grantedRoles ) );
+		}
+
+		request.setAttribute( ATTRIBUTE_PAGE_VISIBILITY, visibility );
+
+		return visibility;
+	}
+
+	/**
+	 * The visibilities built from a snapshot, by set of roles
+	 */
+	private static final class Views
+	{
+		private final SiteTreeSnapshot _snapshot;
+		private final Map < String, PageVisibility > _mapVisibilities = new ConcurrentHashMap <>( );
+
+		/**
+		 * Constructor
+		 * 
+		 * @param snapshot
+		 *                 The site tree snapshot
+		 */
+		Views( SiteTreeSnapshot snapshot )
+		{
+			_snapshot = snapshot;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.portal.service.portal.PortalService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * SiteTreeService
+ * 
+ * <p>
+ * Gives access to the {@link SiteTreeSnapshot} shared by all the menu
+ * services. Readers never lock: the snapshot belongs to the current
+ * {@link MenuGeneration}, which is built again when pages change and then
+ * swapped in through a volatile reference by {@link MenuGenerationService}.
+ * </p>
+ */
+@ApplicationScoped
+public class SiteTreeService
+{
+	@Inject
+	private MenuGenerationService _menuGenerationService;
+
+	/**
+	 * Returns the current snapshot of the site tree, loading it if needed
+	 * 
+	 * @return the snapshot
+	 */
+	public SiteTreeSnapshot getSnapshot( )
+	{
+		return _menuGenerationService.getGeneration( ).getSnapshot( );
+	}
+
+	/**
+	 * Define the root tree id of a page : the top level page containing it, the
+	 * root page for the top level pages, or the page itself if it has no parent
+	 * 
+	 * @param nPageId
+	 *                The page identifier
+	 * @return The parent page identifier or root tree
+	 */
+	public int getRootParentTree( int nPageId )
+	{
+		SiteTreeSnapshot snapshot = getSnapshot( );
+		int nIndex = snapshot.indexOf( nPageId );
+
+		if( nIndex == SiteTreeSnapshot.NONE || snapshot.getParent( nIndex ) == SiteTreeSnapshot.NONE )
+		{
+			return nPageId;
+		}
+
+		int nTopLevel = snapshot.getTopLevelAncestor( nIndex );
+
+		if( nTopLevel == nIndex )
+		{
+			return snapshot.getParentPageId( nIndex );
+		}
+
+		return snapshot.getPageId( nTopLevel );
+	}
+
+	/**
+	 * Returns the active trail of a page. The page 0 stands for the root page.
+	 * 
+	 * @param nPageId
+	 *                The page identifier
+	 * @return the active trail
+	 */
+	public ActiveTrail getActiveTrail( int nPageId )
+	{
+		return ActiveTrail.build( getSnapshot( ), ( nPageId == 0 ) ? PortalService.getRootPageId( ) : nPageId );
+	}
+}
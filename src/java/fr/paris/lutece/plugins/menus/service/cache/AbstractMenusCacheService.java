@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service.cache;
+
+import fr.paris.lutece.portal.service.cache.AbstractCacheableService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * AbstractMenusCacheService
+ * 
+ * <p>
+ * Base class of the menus cache services. It provides a get-or-compute access
+ * where a single thread builds a missing entry while the other threads asking
+ * for the same key wait for its result. A value whose build started before an
+ * invalidation of the cache is not put in the cache.
+ * </p>
+ *
+ * @param <K>
+ *            the type of the cache keys
+ * @param <V>
+ *            the type of the cached values
+ */
+public abstract class AbstractMenusCacheService < K, V > extends AbstractCacheableService < K, V >
+{
+	// Properties
+	private static final String PROPERTY_LOADER_TIMEOUT = "menus.cache.loader.timeout";
+	private static final int DEFAULT_LOADER_TIMEOUT = 10000;
+
+	private final SingleFlight < K, V > _singleFlight = new SingleFlight <>( );
+
+	// Bumped by every invalidation, so that the builds started before it are not cached
+	private final AtomicLong _lInvalidations = new AtomicLong( );
+
+	/**
+	 * Returns the cached value of a key, or builds it with the loader and puts it
+	 * in the cache. Concurrent misses on the same key run the loader only once.
+	 * 
+	 * @param key
+	 *               The cache key
+	 * @param loader
+	 *               The loader used when the key isn't in the cache
+	 * @return the value
+	 */
+	public V getOrCompute( K key, Supplier < V > loader )
+	{
+		if( ! isCacheEnable( ) )
+		{
+			return loader.get( );
+		}
+
+		V value = get( key );
+
+		if( value == null )
+		{
+			value = _singleFlight.load( key, ( ) -> loadAndPut( key, loader ), getLoaderTimeout( ) );
+		}
+
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean remove( K key )
+	{
+		_lInvalidations.incrementAndGet( );
+
+		return super.remove( key );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void resetCache( )
+	{
+		_lInvalidations.incrementAndGet( );
+		super.resetCache( );
+	}
+
+	/**
+	 * Build a value and put it in the cache, unless another thread already did.
+	 * The value is not cached if the cache was invalidated during the build.
+	 * 
+	 * @param key
+	 *               The cache key
+	 * @param loader
+	 *               The loader
+	 * @return the value
+	 */
+	private V loadAndPut( K key, Supplier < V > loader )
+	{
+		V value = get( key );
+
+		if( value == null )
+		{
+			long lInvalidations = _lInvalidations.get( );
+			value = loader.get( );
+
+			if( value != null && _lInvalidations.get( ) == lInvalidations )
+			{
+				put( key, value );
+
+				// An invalidation between the check and the put may have missed the value
+				if( _lInvalidations.get( ) != lInvalidations )
+				{
+					super.remove( key );
+				}
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Returns the maximum time a thread waits for the build of an entry by
+	 * another thread before building it itself
+	 * 
+	 * @return the timeout in milliseconds
+	 */
+	private int getLoaderTimeout( )
+	{
+		return AppPropertiesService.getPropertyInt( PROPERTY_LOADER_TIMEOUT, DEFAULT_LOADER_TIMEOUT );
+	}
+}
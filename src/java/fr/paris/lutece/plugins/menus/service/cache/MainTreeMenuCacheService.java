@@ -34,7 +34,6 @@
 package fr.paris.lutece.plugins.menus.service.cache;
 
 import fr.paris.lutece.plugins.menus.business.MenuItem;
-import fr.paris.lutece.portal.service.cache.AbstractCacheableService;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.context.Initialized;
@@ -45,7 +44,7 @@ import jakarta.servlet.ServletContext;
  * Get the instance of the cache service
  */
 @ApplicationScoped
-public class MainTreeMenuCacheService extends AbstractCacheableService < String, MenuItem >
+public class MainTreeMenuCacheService extends AbstractMenusCacheService < String, MenuItem >
 {
 	// Properties
 	private static final String CACHE_NAME = "Plugin Menus - Main Tree Menu Cache";
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service.cache;
+
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.plugins.menus.service.MenuGeneration;
+import fr.paris.lutece.plugins.menus.service.MenuGenerationService;
+import fr.paris.lutece.plugins.menus.service.PageVisibilityService;
+import fr.paris.lutece.portal.service.i18n.I18nService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the HTML fragments rendered by the menus page includes. The keys
+ * hold the version of the menu generation the fragments are rendered from, so
+ * that a fragment of a previous generation is never served once the next one
+ * is swapped in. The request values in the keys are normalized, so that a
+ * client can't create new entries with arbitrary page ids or locales.
+ */
+@ApplicationScoped
+public class MenusFragmentCacheService extends AbstractMenusCacheService < String, String >
+{
+	/** Page id used for the fragments that don't depend on the current page */
+	public static final int ANY_PAGE = - 1;
+
+	// Properties
+	private static final String CACHE_NAME = "Plugin Menus - Rendered Fragments Cache";
+	private static final String PROPERTY_AVAILABLE_LOCALES = "lutece.i18n.availableLocales";
+	private static final String CACHE_KEY_PREFIX = "menus.fragment.";
+	private static final String KEY_SEPARATOR = ":";
+	private static final String LOCALES_SEPARATOR = ",";
+	private static final int HOME_PAGE = 0;
+
+	@Inject
+	private PageVisibilityService _pageVisibilityService;
+
+	@Inject
+	private MenuGenerationService _menuGenerationService;
+
+	private final Set < String > _setLanguages = new HashSet <>( );
+
+	@PostConstruct
+	public void init( )
+	{
+		initCache( CACHE_NAME, String.class, String.class );
+
+		for( String strLocale : AppPropertiesService.getProperty( PROPERTY_AVAILABLE_LOCALES, "" )
+				.split( LOCALES_SEPARATOR ) )
+		{
+			if( ! strLocale.isBlank( ) )
+			{
+				_setLanguages.add( new Locale( strLocale.trim( ) ).getLanguage( ) );
+			}
+		}
+	}
+
+	/**
+	 * Returns a rendered fragment from the cache, rendering it on a miss. The
+	 * fragments of the pages that don't exist are rendered without caching.
+	 * 
+	 * @param strFragment
+	 *                    The name of the fragment, e.g. the include and its marker
+	 * @param nPageId
+	 *                    The current page id, or {@link #ANY_PAGE}
+	 * @param nMode
+	 *                    The current mode
+	 * @param request
+	 *                    The HTTP request
+	 * @param renderer
+	 *                    The renderer of the fragment
+	 * @return the HTML fragment
+	 */
+	public String getFragment( String strFragment, int nPageId, int nMode, HttpServletRequest request,
+			Supplier < String > renderer )
+	{
+		MenuGeneration generation = _menuGenerationService.getGeneration( );
+
+		if( nPageId != ANY_PAGE && nPageId != HOME_PAGE
+				&& generation.getSnapshot( ).indexOf( nPageId ) == SiteTreeSnapshot.NONE )
+		{
+			return renderer.get( );
+		}
+
+		return getOrCompute( getFragmentCacheKey( strFragment, nPageId, nMode, request, generation ), renderer );
+	}
+
+	/**
+	 * Get the cache key of a fragment. The key holds the page id, the mode, the
+	 * language and the roles restricting pages granted to the current user, since
+	 * the menus are filtered by role, and the version of the menu generation.
+	 * 
+	 * @param strFragment
+	 *                    The name of the fragment
+	 * @param nPageId
+	 *                    The current page id, or {@link #ANY_PAGE}
+	 * @param nMode
+	 *                    The current mode
+	 * @param request
+	 *                    The HTTP request
+	 * @param generation
+	 *                    The menu generation the fragment is rendered from
+	 * @return The cache key of the fragment
+	 */
+	public String getFragmentCacheKey( String strFragment, int nPageId, int nMode, HttpServletRequest request,
+			MenuGeneration generation )
+	{
+		StringBuilder sbKey = new StringBuilder( CACHE_KEY_PREFIX );
+		sbKey.append( strFragment ).append( KEY_SEPARATOR ).append( nPageId ).append( KEY_SEPARATOR ).append( nMode );
+		sbKey.append( KEY_SEPARATOR ).append( getLocale( request ) );
+		sbKey.append( KEY_SEPARATOR ).append( _pageVisibilityService.getVisibility( request ).getKey( ) );
+		sbKey.append( KEY_SEPARATOR ).append( generation.getVersion( ) );
+
+		return sbKey.toString( );
+	}
+
+	/**
+	 * Returns the locale the fragments of a request are rendered with : the
+	 * language of the request if the portal supports it, the default locale
+	 * otherwise
+	 * 
+	 * @param request
+	 *                The HTTP request
+	 * @return the locale
+	 */
+	public Locale getLocale( HttpServletRequest request )
+	{
+		Locale locale = request.getLocale( );
+
+		if( locale != null && _setLanguages.contains( locale.getLanguage( ) ) )
+		{
+			return new Locale( locale.getLanguage( ) );
+		}
+
+		return I18nService.getDefaultLocale( );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName( )
+	{
+		return CACHE_NAME;
+	}
+
+	/**
+	 * This method observes the initialization of the {@link ApplicationScoped}
+	 * context.
+	 * It ensures that this CDI beans are instantiated at the application startup.
+	 *
+	 * <p>
+	 * This method is triggered automatically by CDI when the
+	 * {@link ApplicationScoped} context is initialized,
+	 * which typically occurs during the startup of the application server.
+	 * </p>
+	 *
+	 * @param context the {@link ServletContext} that is initialized. This parameter
+	 *                is observed
+	 *                and injected automatically by CDI when the
+	 *                {@link ApplicationScoped} context is initialized.
+	 */
+	public void initializedService( @Observes @Initialized( ApplicationScoped.class ) ServletContext context )
+	{
+		// This method is intentionally left empty to trigger CDI bean instantiation
+	}
+}
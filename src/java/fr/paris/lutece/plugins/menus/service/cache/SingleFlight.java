@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight
+ * 
+ * <p>
+ * Coalesces concurrent loads of the same key: the first caller runs the loader
+ * while the other callers wait for its result, up to a given timeout. When the
+ * wait times out or is interrupted, the waiting caller runs the loader itself.
+ * </p>
+ *
+ * @param <K>
+ *            the type of the keys
+ * @param <V>
+ *            the type of the loaded values
+ */
+public final class SingleFlight < K, V >
+{
+	private final ConcurrentMap < K, CompletableFuture < V > > _mapInFlight = new ConcurrentHashMap <>( );
+
+	/**
+	 * Load the value of a key, sharing the result with the concurrent callers of
+	 * the same key
+	 * 
+	 * @param key
+	 *                 The key
+	 * @param loader
+	 *                 The loader, run by a single thread at a time for a given key
+	 * @param lTimeout
+	 *                 The maximum time to wait for another thread, in milliseconds
+	 * @return the loaded value
+	 */
+	public V load( K key, Supplier < V > loader, long lTimeout )
+	{
+		CompletableFuture < V > future = new CompletableFuture <>( );
+		CompletableFuture < V > inFlight = _mapInFlight.putIfAbsent( key, future );
+
+		if( inFlight == null )
+		{
+			try
+			{
+				V value = loader.get( );
+				future.complete( value );
+
+				return value;
+			}
+			catch( RuntimeException | Error e )
+			{
+				future.completeExceptionally( e );
+				throw e;
+			}
+			finally
+			{
+				_mapInFlight.remove( key, future );
+			}
+		}
+
+		try
+		{
+			return inFlight.get( lTimeout, TimeUnit.MILLISECONDS );
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread( ).interrupt( );
+
+			return loader.get( );
+		}
+		catch( TimeoutException e )
+		{
+			return loader.get( );
+		}
+		catch( ExecutionException e )
+		{
+			if( e.getCause( ) instanceof RuntimeException )
+			{
+				throw ( RuntimeException ) e.getCause( );
+			}
+
+			throw new IllegalStateException( e.getCause( ) );
+		}
+	}
+
+	/**
+	 * Returns the number of keys currently being loaded
+	 * 
+	 * @return the number of loads in flight
+	 */
+	public int getInFlightCount( )
+	{
+		return _mapInFlight.size( );
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service.cache;
+
+import fr.paris.lutece.plugins.menus.business.MenuItem;
+import fr.paris.lutece.plugins.menus.business.PageInfo;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * SubtreeCache
+ * 
+ * <p>
+ * Memoizes the frozen menu subtrees of a {@link SiteTreeSnapshot}, keyed by
+ * (subtree root, depth). A subtree is built once and then shared by every tree
+ * containing it, so the memory used grows with the number of pages instead of
+ * the number of pages times the number of cached trees. The cache is bound to
+ * its snapshot and is dropped with it.
+ * </p>
+ */
+public final class SubtreeCache
+{
+	private final SiteTreeSnapshot _snapshot;
+	private final ConcurrentMap < Long, MenuItem > _mapSubtrees = new ConcurrentHashMap <>( );
+	private final AtomicReferenceArray < PageInfo > _pageInfos;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param snapshot
+	 *                 The site tree snapshot
+	 */
+	public SubtreeCache( SiteTreeSnapshot snapshot )
+	{
+		_snapshot = snapshot;
+		_pageInfos = new AtomicReferenceArray <>( snapshot.size( ) );
+	}
+
+	/**
+	 * Returns the snapshot of this cache
+	 * 
+	 * @return the snapshot
+	 */
+	public SiteTreeSnapshot getSnapshot( )
+	{
+		return _snapshot;
+	}
+
+	/**
+	 * Returns the frozen menu subtree of a page
+	 * 
+	 * @param nIndex
+	 *               The index of the page in the snapshot
+	 * @param nDepth
+	 *               The number of levels of child pages
+	 * @return the menu item of the page with its child pages
+	 */
+	public MenuItem getSubtree( int nIndex, int nDepth )
+	{
+		// A page without child pages has the same subtree whatever the depth
+		int nKeyDepth = ( _snapshot.getFirstChild( nIndex ) == SiteTreeSnapshot.NONE ) ? 0 : Math.max( nDepth, 0 );
+		Long lKey = ( ( long ) nIndex << 32 ) | nKeyDepth;
+		MenuItem item = _mapSubtrees.get( lKey );
+
+		if( item == null )
+		{
+			item = new MenuItem( );
+			item.setPageInfo( getPageInfo( nIndex ) );
+			addChildren( item, nIndex, nKeyDepth );
+			item.freeze( );
+
+			MenuItem existing = _mapSubtrees.putIfAbsent( lKey, item );
+
+			if( existing != null )
+			{
+				item = existing;
+			}
+		}
+
+		return item;
+	}
+
+	/**
+	 * Add the shared subtrees of the child pages of a page to a menu item
+	 * 
+	 * @param item
+	 *               The menu item
+	 * @param nIndex
+	 *               The index of the page in the snapshot
+	 * @param nDepth
+	 *               The number of levels of child pages
+	 */
+	public void addChildren( MenuItem item, int nIndex, int nDepth )
+	{
+		if( nDepth > 0 )
+		{
+			for( int nChild = _snapshot.getFirstChild( nIndex ) ; nChild != SiteTreeSnapshot.NONE ;
+					nChild = _snapshot.getNextSibling( nChild ) )
+			{
+				item.addChild( getSubtree( nChild, nDepth - 1 ) );
+			}
+		}
+	}
+
+	/**
+	 * Returns the shared page information of a page. It is created once, frozen
+	 * and published safely to the concurrent builds.
+	 * 
+	 * @param nIndex
+	 *               The index of the page in the snapshot
+	 * @return the page information
+	 */
+	private PageInfo getPageInfo( int nIndex )
+	{
+		PageInfo pageInfo = _pageInfos.get( nIndex );
+
+		if( pageInfo == null )
+		{
+			pageInfo = _snapshot.getPageInfo( nIndex ).freeze( );
+
+			if( ! _pageInfos.compareAndSet( nIndex, null, pageInfo ) )
+			{
+				pageInfo = _pageInfos.get( nIndex );
+			}
+		}
+
+		return pageInfo;
+	}
+
+	/**
+	 * Returns the number of subtrees built
+	 * 
+	 * @return the number of subtrees
+	 */
+	public int size( )
+	{
+		return _mapSubtrees.size( );
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service.invalidation;
+
+import fr.paris.lutece.plugins.menus.business.MenusInvalidationMessage;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transport keeping the messages in memory. The buses sharing an instance
+ * behave as the nodes of a cluster, which is used to test the invalidation
+ * without a database.
+ */
+public class InProcessInvalidationTransport implements IMenusInvalidationTransport
+{
+	private final List < MenusInvalidationMessage > _listMessages = new ArrayList <>( );
+	private long _lLastVersion;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void publish( MenusInvalidationMessage message )
+	{
+		_lLastVersion ++ ;
+		message.setVersion( _lLastVersion );
+		_listMessages.add( message );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized List < MenusInvalidationMessage > readAfter( long lVersion )
+	{
+		List < MenusInvalidationMessage > listMessages = new ArrayList <>( );
+
+		for( MenusInvalidationMessage message : _listMessages )
+		{
+			if( message.getVersion( ) > lVersion )
+			{
+				listMessages.add( message );
+			}
+		}
+
+		return listMessages;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized long getLastVersion( )
+	{
+		return _lLastVersion;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void purge( Timestamp dateLimit )
+	{
+		_listMessages.removeIf( message -> message.getDateCreation( ).before( dateLimit ) );
+	}
+}
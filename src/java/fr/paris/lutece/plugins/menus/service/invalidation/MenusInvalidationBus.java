@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service.invalidation;
+
+import fr.paris.lutece.plugins.menus.business.MenusInvalidationMessage;
+import fr.paris.lutece.plugins.menus.service.MenuCacheInvalidationService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.literal.NamedLiteral;
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.inject.Inject;
+
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * MenusInvalidationBus
+ * 
+ * <p>
+ * Propagates the invalidations of the menu caches between the nodes of a
+ * cluster. An invalidation is applied at once on the node where it happens,
+ * then published through the transport named by the
+ * {@code menus.invalidation.transport} property. The other nodes read the
+ * messages published since their last poll and apply the same targeted
+ * eviction. Without transport, the invalidations stay local.
+ * </p>
+ */
+@ApplicationScoped
+public class MenusInvalidationBus
+{
+	// Properties
+	private static final String PROPERTY_TRANSPORT = "menus.invalidation.transport";
+	private static final String PROPERTY_RETENTION = "menus.invalidation.retention";
+
+	// Default retention of the messages, in seconds
+	private static final int DEFAULT_RETENTION = 3600;
+
+	// Versions below the last read one which are read again at each poll, as the
+	// versions are not always committed in their order
+	private static final long VERSION_OVERLAP = 100;
+
+	@Inject
+	private MenuCacheInvalidationService _menuCacheInvalidationService;
+
+	private IMenusInvalidationTransport _transport;
+	private String _strNodeId;
+	private long _lStartVersion;
+	private long _lLastVersion;
+	private final Set < Long > _setAppliedVersions = new HashSet <>( );
+
+	/**
+	 * Constructor used by CDI
+	 */
+	public MenusInvalidationBus( )
+	{
+		_strNodeId = UUID.randomUUID( ).toString( );
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param transport
+	 *                                    The transport, may be null
+	 * @param menuCacheInvalidationService
+	 *                                    The service applying the invalidations
+	 * @param strNodeId
+	 *                                    The identifier of this node
+	 */
+	MenusInvalidationBus( IMenusInvalidationTransport transport,
+			MenuCacheInvalidationService menuCacheInvalidationService, String strNodeId )
+	{
+		_transport = transport;
+		_menuCacheInvalidationService = menuCacheInvalidationService;
+		_strNodeId = strNodeId;
+		start( );
+	}
+
+	/**
+	 * Resolve the transport declared in the properties
+	 */
+	@PostConstruct
+	void init( )
+	{
+		String strTransport = AppPropertiesService.getProperty( PROPERTY_TRANSPORT );
+
+		if( StringUtils.isNotBlank( strTransport ) )
+		{
+			Instance < IMenusInvalidationTransport > instance = CDI.current( )
+					.select( IMenusInvalidationTransport.class, NamedLiteral.of( strTransport.trim( ) ) );
+
+			if( instance.isResolvable( ) )
+			{
+				_transport = instance.get( );
+			}
+			else
+			{
+				AppLogService.error( "Menus invalidation bus : unknown transport " + strTransport );
+			}
+		}
+
+		start( );
+	}
+
+	/**
+	 * Skip the messages published before this node started, as its caches are
+	 * empty
+	 */
+	private void start( )
+	{
+		if( _transport != null )
+		{
+			try
+			{
+				_lStartVersion = _transport.getLastVersion( );
+				_lLastVersion = _lStartVersion;
+			}
+			catch( Exception e )
+			{
+				AppLogService.error( "Menus invalidation bus : unable to read the last version", e );
+			}
+		}
+	}
+
+	/**
+	 * Return if the invalidations are propagated to the other nodes
+	 * 
+	 * @return true if a transport is configured, false otherwise
+	 */
+	public boolean isEnabled( )
+	{
+		return _transport != null;
+	}
+
+	/**
+	 * Return the identifier of this node
+	 * 
+	 * @return the node identifier
+	 */
+	public String getNodeId( )
+	{
+		return _strNodeId;
+	}
+
+	/**
+	 * Return the version of the last message read by this node
+	 * 
+	 * @return the last version
+	 */
+	public synchronized long getLastVersion( )
+	{
+		return _lLastVersion;
+	}
+
+	/**
+	 * Invalidate a scope of the menu caches which doesn't depend on a page
+	 * 
+	 * @param strScope
+	 *                 The scope, one of the MenusInvalidationMessage.SCOPE_*
+	 *                 constants
+	 */
+	public void invalidate( String strScope )
+	{
+		invalidate( strScope, MenusInvalidationMessage.NO_PAGE );
+	}
+
+	/**
+	 * Invalidate a scope of the menu caches on this node and publish it to the
+	 * other nodes
+	 * 
+	 * @param strScope
+	 *                 The scope, one of the MenusInvalidationMessage.SCOPE_*
+	 *                 constants
+	 * @param nPageId
+	 *                 The changed page identifier, or
+	 *                 MenusInvalidationMessage.NO_PAGE
+	 */
+	public void invalidate( String strScope, int nPageId )
+	{
+		MenusInvalidationMessage message = new MenusInvalidationMessage( );
+		message.setScope( strScope );
+		message.setPageId( nPageId );
+		message.setOrigin( _strNodeId );
+		message.setDateCreation( new Timestamp( System.currentTimeMillis( ) ) );
+
+		_menuCacheInvalidationService.apply( message );
+
+		if( _transport != null )
+		{
+			try
+			{
+				_transport.publish( message );
+			}
+			catch( Exception e )
+			{
+				AppLogService.error( "Menus invalidation bus : unable to publish the " + strScope + " invalidation", e );
+			}
+		}
+	}
+
+	/**
+	 * Apply the invalidations published by the other nodes since the last poll
+	 * 
+	 * @return the number of applied invalidations
+	 */
+	public synchronized int poll( )
+	{
+		if( _transport == null )
+		{
+			return 0;
+		}
+
+		List < MenusInvalidationMessage > listMessages = _transport
+				.readAfter( Math.max( _lLastVersion - VERSION_OVERLAP, _lStartVersion ) );
+		int nApplied = 0;
+
+		for( MenusInvalidationMessage message : listMessages )
+		{
+			_lLastVersion = Math.max( _lLastVersion, message.getVersion( ) );
+
+			if( ! _setAppliedVersions.add( message.getVersion( ) ) || _strNodeId.equals( message.getOrigin( ) ) )
+			{
+				continue;
+			}
+
+			try
+			{
+				_menuCacheInvalidationService.apply( message );
+				nApplied ++ ;
+			}
+			catch( Exception e )
+			{
+				AppLogService.error( "Menus invalidation bus : unable to apply the version " + message.getVersion( ), e );
+			}
+		}
+
+		// The versions below the overlap are never read again
+		long lLowest = _lLastVersion - VERSION_OVERLAP;
+		_setAppliedVersions.removeIf( lVersion -> lVersion <= lLowest );
+
+		return nApplied;
+	}
+
+	/**
+	 * Remove the messages older than the retention
+	 */
+	public void purge( )
+	{
+		if( _transport != null )
+		{
+			long lRetention = AppPropertiesService.getPropertyInt( PROPERTY_RETENTION, DEFAULT_RETENTION ) * 1000L;
+			_transport.purge( new Timestamp( System.currentTimeMillis( ) - lRetention ) );
+		}
+	}
+}
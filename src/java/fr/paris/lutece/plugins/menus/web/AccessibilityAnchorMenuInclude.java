@@ -34,13 +34,10 @@
 package fr.paris.lutece.plugins.menus.web;
 
 import fr.paris.lutece.plugins.menus.business.Menus;
-import fr.paris.lutece.plugins.menus.business.MenusHome;
-import fr.paris.lutece.plugins.menus.service.MenusPlugin;
+import fr.paris.lutece.plugins.menus.service.MenusRegistryService;
 import fr.paris.lutece.plugins.menus.service.MenusService;
 import fr.paris.lutece.portal.service.content.PageData;
 import fr.paris.lutece.portal.service.includes.PageInclude;
-import fr.paris.lutece.portal.service.plugin.Plugin;
-import fr.paris.lutece.portal.service.plugin.PluginService;
 import fr.paris.lutece.portal.service.template.AppTemplateService;
 import fr.paris.lutece.portal.service.util.AppLogService;
 import fr.paris.lutece.portal.web.constants.Parameters;
@@ -70,6 +67,8 @@ public class AccessibilityAnchorMenuInclude implements PageInclude
 	private static final String PARAMETER_PAGE_OPERATOR = "=";
 
 	private MenusService _menusService = CDI.current( ).select( MenusService.class ).get( );
+	private MenusRegistryService _menusRegistryService = CDI.current( ).select( MenusRegistryService.class )
+			.get( );
 
 	/**
 	 * Substitue specific Freemarker markers in the page template.
@@ -87,15 +86,10 @@ public class AccessibilityAnchorMenuInclude implements PageInclude
 	{
 		if( request != null )
 		{
-			Plugin plugin = PluginService.getPlugin( MenusPlugin.PLUGIN_NAME );
-
-			for( Menus menus : MenusHome.findAll( plugin ) )
+			for( Menus menus : _menusRegistryService.getMenusByType( MENU_MARKER ) )
 			{
-				if( menus.getMenuType( ).equals( MENU_MARKER ) )
-				{
-					String strMarkerMenuXPage = menus.getMenuMarker( );
-					rootModel.put( strMarkerMenuXPage, getAccessibilityTemplate( nMode, request ) );
-				}
+				String strMarkerMenuXPage = menus.getMenuMarker( );
+				rootModel.put( strMarkerMenuXPage, getAccessibilityTemplate( nMode, request ) );
 			}
 		}
 	}
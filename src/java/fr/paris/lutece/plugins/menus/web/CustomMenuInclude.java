@@ -34,10 +34,9 @@
 package fr.paris.lutece.plugins.menus.web;
 
 import fr.paris.lutece.plugins.menus.business.CustomMenu;
-import fr.paris.lutece.plugins.menus.business.CustomMenuHome;
-import fr.paris.lutece.plugins.menus.business.CustomMenuItem;
-import fr.paris.lutece.plugins.menus.business.CustomMenuItemHome;
+import fr.paris.lutece.plugins.menus.service.CustomMenuGraphLoader;
 import fr.paris.lutece.plugins.menus.service.MenusService;
+import fr.paris.lutece.plugins.menus.service.cache.MenusFragmentCacheService;
 import fr.paris.lutece.portal.service.content.PageData;
 import fr.paris.lutece.portal.service.includes.PageInclude;
 import fr.paris.lutece.portal.service.template.AppTemplateService;
@@ -83,11 +82,14 @@ public class CustomMenuInclude implements PageInclude
 	private static final String TYPE_MAIN_MENU = "main";
 	private static final String TYPE_INTERNAL_MENU = "internal";
 	private static final String TYPE_SIDEBAR_MENU = "sidebar";
-
-	private static final Integer CURRENT_DEPTH = 1;
-	private static final Integer MAX_DEPTH = 2;
+	private static final String FRAGMENT_PREFIX = "custom_menu.";
+	private static final String FRAGMENT_SEPARATOR = ".";
 
 	private MenusService _menusService = CDI.current( ).select( MenusService.class ).get( );
+	private CustomMenuGraphLoader _customMenuGraphLoader = CDI.current( ).select( CustomMenuGraphLoader.class )
+			.get( );
+	private MenusFragmentCacheService _fragmentCacheService = CDI.current( )
+			.select( MenusFragmentCacheService.class ).get( );
 
 	/**
 	 * Substitue specific Freemarker markers in the page template.
@@ -127,25 +129,26 @@ public class CustomMenuInclude implements PageInclude
 				nCurrentPageId = 0;
 			}
 
-			List < CustomMenu > listCostumMenu = CustomMenuHome.getCustomMenusList( );
+			List < CustomMenu > listCostumMenu = _customMenuGraphLoader.getCustomMenus( );
 			Boolean isInternalMenu = listCostumMenu.stream( )
 					.anyMatch( menu -> Strings.CS.equals( menu.getType( ), TYPE_INTERNAL_MENU ) );
 
+			// A menu is rendered once per template, whatever the number of markers using it
+			Map < String, String > mapRendered = new HashMap <>( );
+
 			for( CustomMenu cm : listCostumMenu )
 			{
 				if( ! StringUtils.isBlank( cm.getBookmark( ) ) )
 				{
-					loadMenuItems( cm, CURRENT_DEPTH, MAX_DEPTH );
-
 					rootModel.put( cm.getBookmark( ),
-							getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_MENU ) );
+							getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_MENU, mapRendered ) );
 
 					if( Strings.CS.equals( cm.getType( ), TYPE_MAIN_MENU ) )
 					{
 						rootModel.put( PARAMETER_CUSTOM_MAIN_MENU,
-								getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_MAIN_MENU ) );
+								getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_MAIN_MENU, mapRendered ) );
 						rootModel.put( PARAMETER_PAGE_MAIN_MENU,
-								getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_MAIN_MENU ) ); // Compatibility
+								getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_MAIN_MENU, mapRendered ) ); // Compatibility
 																											// with old
 																											// page_frameset
 																											// version
@@ -157,9 +160,9 @@ public class CustomMenuInclude implements PageInclude
 						if( ! isInternalMenu )
 						{
 							rootModel.put( PARAMETER_CUSTOM_INTERNAL_MENU,
-									getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_INTERNAL_MENU ) );
+									getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_INTERNAL_MENU, mapRendered ) );
 							rootModel.put( PARAMETER_PAGE_MAIN_MENU,
-									getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_MAIN_MENU ) ); // Compatibility
+									getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_MAIN_MENU, mapRendered ) ); // Compatibility
 																												// with
 																												// old
 																												// page_frameset
@@ -174,13 +177,13 @@ public class CustomMenuInclude implements PageInclude
 					if( Strings.CS.equals( cm.getType( ), TYPE_INTERNAL_MENU ) )
 					{
 						rootModel.put( PARAMETER_CUSTOM_INTERNAL_MENU,
-								getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_INTERNAL_MENU ) );
+								getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_INTERNAL_MENU, mapRendered ) );
 					}
 
 					if( Strings.CS.equals( cm.getType( ), TYPE_SIDEBAR_MENU ) )
 					{
 						rootModel.put( PARAMETER_CUSTOM_SIDEBAR_MENU,
-								getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_SIDEBAR_MENU ) );
+								getCustomMenuList( cm, nCurrentPageId, nMode, request, TYPE_SIDEBAR_MENU, mapRendered ) );
 					}
 				}
 			}
@@ -196,16 +199,47 @@ public class CustomMenuInclude implements PageInclude
 	 *                       The current mode
 	 * @param request
 	 *                       The HTTP request
+	 * @param strTypeMenu
+	 *                       The type of menu
+	 * @param mapRendered
+	 *                       The menus already rendered for this request, by menu
+	 *                       and template
 	 * @return the list of childpages
 	 */
 	private String getCustomMenuList( CustomMenu cm, int nCurrentPageId, int nMode, HttpServletRequest request,
-			String strTypeMenu )
+			String strTypeMenu, Map < String, String > mapRendered )
+	{
+		String strTemplate = getTemplateByType( strTypeMenu );
+
+		return mapRendered.computeIfAbsent( cm.getId( ) + FRAGMENT_SEPARATOR + strTemplate, k -> {
+			// The custom menus don't depend on the current page
+			String strFragment = FRAGMENT_PREFIX + cm.getId( ) + FRAGMENT_SEPARATOR + strTypeMenu;
+
+			return _fragmentCacheService.getFragment( strFragment, MenusFragmentCacheService.ANY_PAGE, nMode,
+					request, ( ) -> renderCustomMenuList( cm, nMode, request, strTypeMenu ) );
+		} );
+	}
+
+	/**
+	 * Render a custom menu with the template of its type
+	 * 
+	 * @param cm
+	 *                    The custom menu
+	 * @param nMode
+	 *                    The current mode
+	 * @param request
+	 *                    The HTTP request
+	 * @param strTypeMenu
+	 *                    The type of menu
+	 * @return the rendered menu
+	 */
+	private String renderCustomMenuList( CustomMenu cm, int nMode, HttpServletRequest request, String strTypeMenu )
 	{
 		HashMap < String, Object > modelList = new HashMap < String, Object >( );
 		Locale locale = null;
 		if( request != null )
 		{
-			locale = request.getLocale( );
+			locale = _fragmentCacheService.getLocale( request );
 		}
 
 		// Define the site path from url, by mode
@@ -233,48 +267,4 @@ public class CustomMenuInclude implements PageInclude
 				return TEMPLATE_CUSTOM_MENU;
 		}
 	}
-
-	/**
-	 * Loads menu items recursively, setting sub-menus for menu type items
-	 * 
-	 * @param menu The menu to load items for
-	 */
-	private void loadMenuItems( CustomMenu menu, Integer currentDepth, Integer maxDepth )
-	{
-		// Stop recursion if maximum depth is exceeded
-		if( currentDepth > maxDepth )
-		{
-			return;
-		}
-
-		List < CustomMenuItem > listItems = CustomMenuItemHome.getCustomMenuItemsListByMenuId( menu.getId( ) );
-
-		for( CustomMenuItem item : listItems )
-		{
-			if( Strings.CS.equals( item.getType( ), TYPE_MENU ) && ! StringUtils.isBlank( item.getSourceItemId( ) ) )
-			{
-				try
-				{
-					Integer nId = Integer.parseInt( item.getSourceItemId( ) );
-					CustomMenu subMenu = CustomMenuHome.findByPrimaryKey( nId );
-
-					// Recursive call to load sub-menu items
-					if( subMenu != null )
-					{
-						// Load items for submenu
-						List < CustomMenuItem > items = CustomMenuItemHome.getCustomMenuItemsListByMenuId( nId );
-						subMenu.setListItems( items );
-
-						loadMenuItems( subMenu, currentDepth + 1, maxDepth );
-						item.setSubMenu( subMenu );
-					}
-				}
-				catch( Exception e )
-				{
-					AppLogService.error( "Error loading sub-menu for item: " + item.getSourceItemId( ), e );
-				}
-			}
-		}
-		menu.setListItems( listItems );
-	}
 }
@@ -37,16 +37,15 @@ import fr.paris.lutece.plugins.menus.business.CustomMenu;
 import fr.paris.lutece.plugins.menus.business.CustomMenuHome;
 import fr.paris.lutece.plugins.menus.business.CustomMenuItem;
 import fr.paris.lutece.plugins.menus.business.CustomMenuItemHome;
+import fr.paris.lutece.plugins.menus.business.MenusInvalidationMessage;
 import fr.paris.lutece.plugins.menus.service.CustomMenuService;
-import fr.paris.lutece.plugins.menus.service.MainTreeMenuService;
-import fr.paris.lutece.plugins.menus.service.MainTreeMenuAllPagesService;
+import fr.paris.lutece.plugins.menus.service.invalidation.MenusInvalidationBus;
 import fr.paris.lutece.plugins.menus.web.validator.ValidatorCustomItemForm;
-import fr.paris.lutece.portal.service.cache.CacheableService;
-import fr.paris.lutece.portal.service.cache.ManageCacheService;
 import fr.paris.lutece.portal.service.datastore.DatastoreService;
 import fr.paris.lutece.portal.service.i18n.I18nService;
 import fr.paris.lutece.portal.service.message.AdminMessage;
 import fr.paris.lutece.portal.service.message.AdminMessageService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
 import fr.paris.lutece.portal.util.mvc.admin.MVCAdminJspBean;
 import fr.paris.lutece.portal.util.mvc.admin.annotations.Controller;
 import fr.paris.lutece.portal.util.mvc.commons.annotations.Action;
@@ -67,6 +66,7 @@ import jakarta.servlet.http.HttpServletRequest;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * Custom Menus JSP Bean using MVC annotations
@@ -113,6 +113,9 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 	private static final String MARK_AVAILABLE_MENUS_LIST = "available_menus_list";
 	private static final String MARK_AVAILABLE_XPAGES_LIST = "available_xpages_list";
 	private static final String MARK_AVAILABLE_PAGES_LIST = "available_pages_list";
+	private static final String MARK_AVAILABLE_PAGES_TOTAL = "available_pages_total";
+	private static final String MARK_AVAILABLE_PAGES_OFFSET = "available_pages_offset";
+	private static final String MARK_AVAILABLE_PAGES_LIMIT = "available_pages_limit";
 	private static final String MARK_CREATE_CUSTOM_MENU_ITEM_ERROR = "create_items_errors_list";
 	private static final String MARK_MODIFY_CUSTOM_MENU_ITEM_ERROR = "modify_items_errors_list";
 	private static final String MARK_SEARCH_CRITERIA = "search_criteria";
@@ -132,6 +135,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 	private static final String PARAMETER_ORDER_ID = "order_id";
 	private static final String PARAMETER_MENU_TYPE = "menu_type";
 	private static final String PARAMETER_DEPTH_VALUE = "depth_value";
+	private static final String PARAMETER_PAGES_OFFSET = "pages_offset";
 
 	// Button action value
 	private static final String VALUE_ACTION_CREATE_CUSTOM_MENU_BUTTON = "create_custom_menu_with_items";
@@ -155,6 +159,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 	private static final String PROPERTY_MENU_MAIN = "menus.mainTreeMenu.depth.main";
 	private static final String PROPERTY_MENU_TREE = "menus.mainTreeMenu.depth.tree";
 	private static final String PROPERTY_MENU_TREE_ALL_PAGES = "menus.mainTreeMenu.depth.tree.allpages";
+	private static final String PROPERTY_AVAILABLE_PAGES_LIMIT = "menus.admin.availablePages.limit";
 
 	// Jsp paths
 	private static final String JSP_MANAGE_MENUS = "jsp/admin/plugins/menus/ManageCustomMenus.jsp";
@@ -194,9 +199,9 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 	private static final String MENU_ITEM_TYPE_PAGE = "page";
 	private static final String MENU_ITEM_TYPE_EXTERNAL_URL = "external_url";
 	private static final String MENU_ITEM_TYPE_MENU = "menu";
-	private static final String NAME_PAGE_SERVICE_CACHE = "PageCacheService";
 	private static final String DEFAULT_MAX_DEPTH_MAIN_MENU= "1";
 	private static final String DEFAULT_MAX_DEPTH_TREE_MENU="2";
+	private static final int DEFAULT_AVAILABLE_PAGES_LIMIT = 50;
 
 	// Instance variable for custom menu
 	private CustomMenu _currentCustomMenu;
@@ -210,13 +215,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 	private CustomMenuService _customMenuService;
 
 	@Inject
-	private MainTreeMenuService _mainTreeMenuService;
-
-	@Inject
-	private MainTreeMenuAllPagesService _mainTreeMenuAllPagesService;
-
-	@Inject
-	private ManageCacheService _manageCacheService;
+	private MenusInvalidationBus _menusInvalidationBus;
 
 	@Inject
 	@Pager( name = "pagerItem", listBookmark = MARK_CUSTOM_MENU_ITEMS_LIST )
@@ -307,7 +306,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 
 		CustomMenuHome.create( _currentCustomMenu );
 		addInfo( INFO_CUSTOM_MENU_CREATED, getLocale( ) );
-		resetPagesCache( );
+		invalidateCustomMenus( );
 
 		String action = request.getParameter( PARAMETER_ACTION_CREATE_CUSTOM_MENU_BUTTON );
 
@@ -368,7 +367,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 
 		CustomMenuHome.update( _currentCustomMenu );
 		addInfo( INFO_CUSTOM_MENU_UPDATED, getLocale( ) );
-		resetPagesCache( );
+		invalidateCustomMenus( );
 
 		String action = request.getParameter( PARAMETER_ACTION_MODIFY_CUSTOM_MENU_BUTTON );
 
@@ -404,6 +403,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 
 		List < CustomMenuItem > listCustomMenuItems = CustomMenuItemHome
 				.getCustomMenuItemsListByMenuId( _currentCustomMenu.getId( ) );
+		listCustomMenuItems.forEach( _customMenuService::resolveItem );
 
 		_pagerItem.withBaseUrl( strUrl )
 				.withListItem( listCustomMenuItems )
@@ -411,8 +411,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 
 		model.put( MARK_ID_CUSTOM_MENU, _currentCustomMenu.getId( ) );
 		model.put( MARK_ITEM_TYPES_LIST, _listMenuItemTypes );
-		model.put( MARK_AVAILABLE_PAGES_LIST,
-				_customMenuService.getAvailablePagesReferenceList( _strFilterCriteria ) );
+		putAvailablePages( request, model );
 		model.put( MARK_AVAILABLE_XPAGES_LIST,
 				_customMenuService.getAvailableXpagesReferenceList( _strFilterCriteria ) );
 		model.put( MARK_AVAILABLE_MENUS_LIST,
@@ -464,7 +463,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 		int nId = Integer.parseInt( request.getParameter( PARAMETER_ID ) );
 		CustomMenuHome.remove( nId );
 		addInfo( INFO_CUSTOM_MENU_REMOVED, getLocale( ) );
-		resetPagesCache( );
+		invalidateCustomMenus( );
 
 		return redirectView( request, VIEW_MANAGE_CUSTOM_MENUS );
 	}
@@ -496,6 +495,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 
 		List < CustomMenuItem > listCustomMenuItems = CustomMenuItemHome
 				.getCustomMenuItemsListByMenuId( _currentCustomMenu.getId( ) );
+		listCustomMenuItems.forEach( _customMenuService::resolveItem );
 
 		_pagerItem.withBaseUrl( strUrl )
 				.withListItem( listCustomMenuItems )
@@ -503,8 +503,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 
 		model.put( MARK_ID_CUSTOM_MENU, _currentCustomMenu.getId( ) );
 		model.put( MARK_ITEM_TYPES_LIST, _listMenuItemTypes );
-		model.put( MARK_AVAILABLE_PAGES_LIST,
-				_customMenuService.getAvailablePagesReferenceList( _strFilterCriteria ) );
+		putAvailablePages( request, model );
 		model.put( MARK_AVAILABLE_XPAGES_LIST,
 				_customMenuService.getAvailableXpagesReferenceList( _strFilterCriteria ) );
 		model.put( MARK_AVAILABLE_MENUS_LIST,
@@ -544,7 +543,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 
 		CustomMenuItemHome.create( _currentCustomMenuItem );
 		addInfo( INFO_CUSTOM_MENU_ITEM_CREATED, getLocale( ) );
-		resetPagesCache( );
+		invalidateCustomMenus( );
 
 		_currentCustomMenuItem = null;
 		return redirectView( request, VIEW_CREATE_CUSTOM_MENU_WITH_ITEMS );
@@ -580,8 +579,6 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 		model.put( MARK_ID_CUSTOM_MENU, _currentCustomMenu.getId( ) );
 		model.put( MARK_CUSTOM_MENU_ITEM, _currentCustomMenuItem );
 		model.put( MARK_ITEM_TYPES_LIST, _listMenuItemTypes );
-		model.put( MARK_AVAILABLE_PAGES_LIST,
-				_customMenuService.getAvailablePagesReferenceList( _strFilterCriteria ) );
 		model.put( MARK_AVAILABLE_XPAGES_LIST,
 				_customMenuService.getAvailableXpagesReferenceList( _strFilterCriteria ) );
 		model.put( MARK_AVAILABLE_MENUS_LIST,
@@ -618,7 +615,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 
 		CustomMenuItemHome.update( _currentCustomMenuItem );
 		addInfo( INFO_CUSTOM_MENU_ITEM_UPDATED, getLocale( ) );
-		resetPagesCache( );
+		invalidateCustomMenus( );
 
 		_currentCustomMenuItem = null;
 		return redirectView( request, VIEW_CREATE_CUSTOM_MENU_WITH_ITEMS );
@@ -693,7 +690,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 		}
 
 		addInfo( INFO_CUSTOM_MENU_ITEM_REMOVED, getLocale( ) );
-		resetPagesCache( );
+		invalidateCustomMenus( );
 
 		return redirectView( request, VIEW_CREATE_CUSTOM_MENU_WITH_ITEMS );
 	}
@@ -725,6 +722,26 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 		return redirectView( request, VIEW_CREATE_CUSTOM_MENU_WITH_ITEMS );
 	}
 
+	/**
+	 * Put in the model a page of the available pages matching the search
+	 * criteria, and what is needed to browse the other pages
+	 *
+	 * @param request The Http request
+	 * @param model   The model
+	 */
+	private void putAvailablePages( HttpServletRequest request, Models model )
+	{
+		int nLimit = AppPropertiesService.getPropertyInt( PROPERTY_AVAILABLE_PAGES_LIMIT,
+				DEFAULT_AVAILABLE_PAGES_LIMIT );
+		int nOffset = Math.max( NumberUtils.toInt( request.getParameter( PARAMETER_PAGES_OFFSET ), 0 ), 0 );
+
+		model.put( MARK_AVAILABLE_PAGES_LIST,
+				_customMenuService.getAvailablePagesReferenceList( _strFilterCriteria, nOffset, nLimit ) );
+		model.put( MARK_AVAILABLE_PAGES_TOTAL, _customMenuService.countAvailablePages( _strFilterCriteria ) );
+		model.put( MARK_AVAILABLE_PAGES_OFFSET, nOffset );
+		model.put( MARK_AVAILABLE_PAGES_LIMIT, nLimit );
+	}
+
 	// ///////////////////////////////////////////////
 	// /////////////CHANGE_ITEMS_ORDER////////////////
 	// ///////////////////////////////////////////////
@@ -782,7 +799,7 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 			CustomMenuItemHome.update( itemWithTargetOrder );
 		}
 
-		resetPagesCache( );
+		invalidateCustomMenus( );
 		return redirectView( request, VIEW_CREATE_CUSTOM_MENU_WITH_ITEMS );
 	}
 
@@ -1052,39 +1069,34 @@ public class CustomMenusJspBean extends MVCAdminJspBean
 	{
 		if( Strings.CS.equals( MENU_TYPE_MENU_MAIN, menuType ) )
 		{
-			if( _mainTreeMenuService.isMainTreeCacheServiceEnable( ) )
-			{
-				_mainTreeMenuService.getCacheService( ).resetCache( );
-			}
+			_menusInvalidationBus.invalidate( MenusInvalidationMessage.SCOPE_MAIN_MENU );
 		}
 		else if( Strings.CS.equals( MENU_TYPE_MENU_TREE, menuType ) )
 		{
-			if( _mainTreeMenuService.isMainTreeCacheServiceEnable( ) )
-			{
-				_mainTreeMenuService.getCacheService( ).resetCache( );
-			}
+			_menusInvalidationBus.invalidate( MenusInvalidationMessage.SCOPE_TREE_MENUS );
 		}
 		else if( Strings.CS.equals( MENU_TYPE_MENU_TREE_ALL_PAGES, menuType ) )
 		{
-			if( _mainTreeMenuAllPagesService.isMainTreeCacheServiceEnable( ) )
-			{
-				_mainTreeMenuAllPagesService.getCacheService( ).resetCache( );
-			}
+			_menusInvalidationBus.invalidate( MenusInvalidationMessage.SCOPE_ALL_PAGES_MENUS );
 		}
 	}
 
 	/**
-	 * Reset Cache of Page Service Cache
+	 * Reload the custom menus graph used by the page includes, on every node. The
+	 * portal pages are reset once the new menus are swapped in.
+	 */
+	private void invalidateCustomMenus( )
+	{
+		_menusInvalidationBus.invalidate( MenusInvalidationMessage.SCOPE_CUSTOM_MENUS );
+	}
+
+	/**
+	 * Reset Cache of Page Service Cache and the rendered menus, on every node
 	 * 
 	 */
 	private void resetPagesCache( )
 	{
-		CacheableService < String , String > cs = _manageCacheService.getCache( NAME_PAGE_SERVICE_CACHE );
-
-		if( cs != null )
-		{
-			cs.resetCache( );
-		}
+		_menusInvalidationBus.invalidate( MenusInvalidationMessage.SCOPE_PORTAL_PAGES );
 	}
 
 }
\ No newline at end of file
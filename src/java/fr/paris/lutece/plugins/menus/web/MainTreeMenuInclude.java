@@ -34,8 +34,11 @@
 package fr.paris.lutece.plugins.menus.web;
 
 import fr.paris.lutece.plugins.menus.business.MenuItem;
+import fr.paris.lutece.plugins.menus.service.ActiveTrail;
 import fr.paris.lutece.plugins.menus.service.MainTreeMenuService;
 import fr.paris.lutece.plugins.menus.service.MenusService;
+import fr.paris.lutece.plugins.menus.service.SiteTreeService;
+import fr.paris.lutece.plugins.menus.service.cache.MenusFragmentCacheService;
 import fr.paris.lutece.portal.service.content.PageData;
 import fr.paris.lutece.portal.service.includes.PageInclude;
 import fr.paris.lutece.portal.service.template.AppTemplateService;
@@ -72,11 +75,20 @@ public class MainTreeMenuInclude implements PageInclude
 	private static final String MARK_ROOT_PAGE_ID = "root_page_id";
 	private static final String MARK_PAGE_MENU_MAIN = "page_tree_menu_main";
 	private static final String MARK_PAGE_MENU_TREE = "page_tree_menu_tree";
+	private static final String MARK_ACTIVE_TRAIL = "active_trail";
+	private static final String MARK_BREADCRUMB = "breadcrumb";
+	private static final String MARK_PAGE_ACTIVE_TRAIL = "page_tree_menu_active_trail";
+	private static final String MARK_PAGE_BREADCRUMB = "page_tree_menu_breadcrumb";
 
 	private MainTreeMenuService _mainTreeMenuService = CDI.current( ).select( MainTreeMenuService.class ).get( );
 
 	private MenusService _menusService = CDI.current( ).select( MenusService.class ).get( );
 
+	private SiteTreeService _siteTreeService = CDI.current( ).select( SiteTreeService.class ).get( );
+
+	private MenusFragmentCacheService _fragmentCacheService = CDI.current( )
+			.select( MenusFragmentCacheService.class ).get( );
+
 	/**
 	 * Substitue specific Freemarker markers in the page template.
 	 * 
@@ -115,8 +127,13 @@ public class MainTreeMenuInclude implements PageInclude
 				nCurrentPageId = 0;
 			}
 
-			rootModel.put( MARK_PAGE_MENU_MAIN, getMainPageList( nCurrentPageId, nMode, request ) );
-			rootModel.put( MARK_PAGE_MENU_TREE, getTreePageList( nCurrentPageId, nMode, request ) );
+			// The ancestors of the current page are computed once for the whole page
+			ActiveTrail activeTrail = _siteTreeService.getActiveTrail( nCurrentPageId );
+
+			rootModel.put( MARK_PAGE_MENU_MAIN, getMainPageList( nCurrentPageId, nMode, request, activeTrail ) );
+			rootModel.put( MARK_PAGE_MENU_TREE, getTreePageList( nCurrentPageId, nMode, request, activeTrail ) );
+			rootModel.put( MARK_PAGE_ACTIVE_TRAIL, activeTrail );
+			rootModel.put( MARK_PAGE_BREADCRUMB, activeTrail.getBreadcrumb( ) );
 		}
 	}
 
@@ -129,16 +146,39 @@ public class MainTreeMenuInclude implements PageInclude
 	 *                       The current mode
 	 * @param request
 	 *                       The HTTP request
+	 * @param activeTrail
+	 *                       The active trail of the current page
 	 * @return the list of childpages
 	 */
-	private String getMainPageList( int nCurrentPageId, int nMode, HttpServletRequest request )
+	private String getMainPageList( int nCurrentPageId, int nMode, HttpServletRequest request,
+			ActiveTrail activeTrail )
+	{
+		return _fragmentCacheService.getFragment( MARK_PAGE_MENU_MAIN, nCurrentPageId, nMode, request,
+				( ) -> renderMainPageList( nCurrentPageId, nMode, request, activeTrail ) );
+	}
+
+	/**
+	 * Render the list of childpages pages for first level of childpages
+	 * 
+	 * @param nCurrentPageId
+	 *                       The current page id
+	 * @param nMode
+	 *                       The current mode
+	 * @param request
+	 *                       The HTTP request
+	 * @param activeTrail
+	 *                       The active trail of the current page
+	 * @return the list of childpages
+	 */
+	private String renderMainPageList( int nCurrentPageId, int nMode, HttpServletRequest request,
+			ActiveTrail activeTrail )
 	{
 
 		HashMap < String, Object > modelList = new HashMap < String, Object >( );
 		Locale locale = null;
 		if( request != null )
 		{
-			locale = request.getLocale( );
+			locale = _fragmentCacheService.getLocale( request );
 		}
 
 		// Define the root tree for each childpages of root page
@@ -149,6 +189,8 @@ public class MainTreeMenuInclude implements PageInclude
 		modelList.put( MARK_MENU, root );
 		modelList.put( MARK_ROOT_PAGE_ID, nRootParentTree );
 		modelList.put( MARK_CURRENT_PAGE_ID, Integer.toString( nCurrentPageId ) );
+		modelList.put( MARK_ACTIVE_TRAIL, activeTrail );
+		modelList.put( MARK_BREADCRUMB, activeTrail.getBreadcrumb( ) );
 
 		// Define the site path from url, by mode
 		modelList.put( MenusService.MARKER_SITE_PATH, _menusService.getSitePath( nMode ) );
@@ -167,15 +209,38 @@ public class MainTreeMenuInclude implements PageInclude
 	 *                       The current mode
 	 * @param request
 	 *                       The HTTP request
+	 * @param activeTrail
+	 *                       The active trail of the current page
+	 * @return the list of chilpages
+	 */
+	private String getTreePageList( int nCurrentPageId, int nMode, HttpServletRequest request,
+			ActiveTrail activeTrail )
+	{
+		return _fragmentCacheService.getFragment( MARK_PAGE_MENU_TREE, nCurrentPageId, nMode, request,
+				( ) -> renderTreePageList( nCurrentPageId, nMode, request, activeTrail ) );
+	}
+
+	/**
+	 * Render the list of childpages pages for other levels
+	 * 
+	 * @param nCurrentPageId
+	 *                       The current page id
+	 * @param nMode
+	 *                       The current mode
+	 * @param request
+	 *                       The HTTP request
+	 * @param activeTrail
+	 *                       The active trail of the current page
 	 * @return the list of chilpages
 	 */
-	private String getTreePageList( int nCurrentPageId, int nMode, HttpServletRequest request )
+	private String renderTreePageList( int nCurrentPageId, int nMode, HttpServletRequest request,
+			ActiveTrail activeTrail )
 	{
 		HashMap < String, Object > modelList = new HashMap < String, Object >( );
 		Locale locale = null;
 		if( request != null )
 		{
-			locale = request.getLocale( );
+			locale = _fragmentCacheService.getLocale( request );
 		}
 
 		// Define the root tree for each childpages of root page
@@ -186,6 +251,8 @@ public class MainTreeMenuInclude implements PageInclude
 		modelList.put( MARK_MENU, root );
 		modelList.put( MARK_ROOT_PAGE_ID, nRootParentTree );
 		modelList.put( MARK_CURRENT_PAGE_ID, Integer.toString( nCurrentPageId ) );
+		modelList.put( MARK_ACTIVE_TRAIL, activeTrail );
+		modelList.put( MARK_BREADCRUMB, activeTrail.getBreadcrumb( ) );
 
 		// Define the site path from url, by mode
 		modelList.put( MenusService.MARKER_SITE_PATH, _menusService.getSitePath( nMode ) );
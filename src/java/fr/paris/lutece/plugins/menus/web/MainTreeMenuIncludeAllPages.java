@@ -36,6 +36,7 @@ package fr.paris.lutece.plugins.menus.web;
 import fr.paris.lutece.plugins.menus.business.MenuItem;
 import fr.paris.lutece.plugins.menus.service.MainTreeMenuAllPagesService;
 import fr.paris.lutece.plugins.menus.service.MenusService;
+import fr.paris.lutece.plugins.menus.service.cache.MenusFragmentCacheService;
 import fr.paris.lutece.portal.service.content.PageData;
 import fr.paris.lutece.portal.service.includes.PageInclude;
 import fr.paris.lutece.portal.service.template.AppTemplateService;
@@ -76,6 +77,8 @@ public class MainTreeMenuIncludeAllPages implements PageInclude
 	private MainTreeMenuAllPagesService _mainTreeMenuAllPagesService = CDI.current( )
 			.select( MainTreeMenuAllPagesService.class ).get( );
 	private MenusService _menusService = CDI.current( ).select( MenusService.class ).get( );
+	private MenusFragmentCacheService _fragmentCacheService = CDI.current( )
+			.select( MenusFragmentCacheService.class ).get( );
 
 	/**
 	 * Substitue specific Freemarker markers in the page template.
@@ -132,12 +135,29 @@ public class MainTreeMenuIncludeAllPages implements PageInclude
 	 * @return the list of childpages
 	 */
 	private String getMainPageList( int nCurrentPageId, int nMode, HttpServletRequest request )
+	{
+		return _fragmentCacheService.getFragment( MARK_PAGE_MENU_MAIN_ALL_PAGES, nCurrentPageId, nMode, request,
+				( ) -> renderMainPageList( nCurrentPageId, nMode, request ) );
+	}
+
+	/**
+	 * Render the list of childpages pages for first level of childpages
+	 * 
+	 * @param nCurrentPageId
+	 *                       The current page id
+	 * @param nMode
+	 *                       The current mode
+	 * @param request
+	 *                       The HTTP request
+	 * @return the list of childpages
+	 */
+	private String renderMainPageList( int nCurrentPageId, int nMode, HttpServletRequest request )
 	{
 		HashMap < String, Object > modelList = new HashMap < String, Object >( );
 		Locale locale = null;
 		if( request != null )
 		{
-			locale = request.getLocale( );
+			locale = _fragmentCacheService.getLocale( request );
 		}
 
 		// Define the root tree for each childpages of root page
@@ -169,12 +189,29 @@ public class MainTreeMenuIncludeAllPages implements PageInclude
 	 * @return the list of chilpages
 	 */
 	private String getTreePageList( int nCurrentPageId, int nMode, HttpServletRequest request )
+	{
+		return _fragmentCacheService.getFragment( MARK_PAGE_MENU_TREE_ALL_PAGES, nCurrentPageId, nMode, request,
+				( ) -> renderTreePageList( nCurrentPageId, nMode, request ) );
+	}
+
+	/**
+	 * Render the list of childpages pages for other levels
+	 * 
+	 * @param nCurrentPageId
+	 *                       The current page id
+	 * @param nMode
+	 *                       The current mode
+	 * @param request
+	 *                       The HTTP request
+	 * @return the list of chilpages
+	 */
+	private String renderTreePageList( int nCurrentPageId, int nMode, HttpServletRequest request )
 	{
 		HashMap < String, Object > modelList = new HashMap < String, Object >( );
 		Locale locale = null;
 		if( request != null )
 		{
-			locale = request.getLocale( );
+			locale = _fragmentCacheService.getLocale( request );
 		}
 
 		// Define the root tree for each childpages of root page
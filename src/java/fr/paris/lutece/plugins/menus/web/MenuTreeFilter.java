@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.web;
+
+import fr.paris.lutece.plugins.menus.service.MenuTreePayload;
+import fr.paris.lutece.plugins.menus.service.MenuTreePayloadService;
+import fr.paris.lutece.plugins.menus.service.MenusService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+import java.io.IOException;
+
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+
+/**
+ * MenuTreeFilter
+ * 
+ * <p>
+ * Serves the menutree action of the treemenupages XPage from the serialized
+ * menu tree : a request whose If-None-Match header holds the current entity
+ * tag gets a 304 response, the others get the cached bytes, gzip compressed
+ * when the client accepts it. The other requests, and this one if the tree
+ * can't be serialized, go down the chain to the portal.
+ * </p>
+ */
+public class MenuTreeFilter implements Filter
+{
+	// Parameters
+	private static final String PARAMETER_PAGE = "page";
+	private static final String PARAMETER_ACTION = "action";
+	private static final String XPAGE_TREE_MENU_PAGES = "treemenupages";
+	private static final String ACTION_MENU_TREE = "menutree";
+
+	// Headers
+	private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+	private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+	private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+	private static final String HEADER_ETAG = "ETag";
+	private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+	private static final String HEADER_VARY = "Vary";
+
+	private static final String METHOD_GET = "GET";
+	private static final String ENCODING_GZIP = "gzip";
+	private static final String CACHE_CONTROL_NO_CACHE = "no-cache";
+	private static final String CONTENT_TYPE_JSON = "application/json";
+	private static final String CHARSET_UTF8 = "UTF-8";
+	private static final String ETAG_ANY = "*";
+	private static final String ETAG_WEAK_PREFIX = "W/";
+	private static final String ETAG_LIST_SEPARATOR = ",";
+
+	private MenuTreePayloadService _menuTreePayloadService = CDI.current( ).select( MenuTreePayloadService.class )
+			.get( );
+	private MenusService _menusService = CDI.current( ).select( MenusService.class ).get( );
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void doFilter( ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain )
+			throws IOException, ServletException
+	{
+		HttpServletRequest request = (HttpServletRequest) servletRequest;
+
+		if( ! isMenuTreeRequest( request ) )
+		{
+			chain.doFilter( servletRequest, servletResponse );
+
+			return;
+		}
+
+		MenuTreePayload payload;
+
+		try
+		{
+			payload = _menuTreePayloadService.getPayload( _menusService.getPageFullLink( request ) );
+		}
+		catch( IOException e )
+		{
+			AppLogService.error( e.getMessage( ), e );
+			chain.doFilter( servletRequest, servletResponse );
+
+			return;
+		}
+
+		HttpServletResponse response = (HttpServletResponse) servletResponse;
+		boolean bGzip = Strings.CI.contains( request.getHeader( HEADER_ACCEPT_ENCODING ), ENCODING_GZIP );
+		String strETag = payload.getETag( bGzip );
+
+		response.setHeader( HEADER_ETAG, strETag );
+		response.setHeader( HEADER_CACHE_CONTROL, CACHE_CONTROL_NO_CACHE );
+		response.setHeader( HEADER_VARY, HEADER_ACCEPT_ENCODING );
+
+		if( isNotModified( request.getHeader( HEADER_IF_NONE_MATCH ), strETag ) )
+		{
+			response.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+
+			return;
+		}
+
+		byte [ ] body = bGzip ? payload.getGzipJson( ) : payload.getJson( );
+
+		if( bGzip )
+		{
+			response.setHeader( HEADER_CONTENT_ENCODING, ENCODING_GZIP );
+		}
+
+		response.setContentType( CONTENT_TYPE_JSON );
+		response.setCharacterEncoding( CHARSET_UTF8 );
+		response.setContentLength( body.length );
+		response.getOutputStream( ).write( body );
+	}
+
+	/**
+	 * Tells if a request is a GET of the menu tree
+	 * 
+	 * @param request
+	 *                The HTTP request
+	 * @return true if the request is a GET of the menu tree
+	 */
+	private static boolean isMenuTreeRequest( HttpServletRequest request )
+	{
+		return METHOD_GET.equals( request.getMethod( ) )
+				&& XPAGE_TREE_MENU_PAGES.equals( request.getParameter( PARAMETER_PAGE ) )
+				&& ACTION_MENU_TREE.equals( request.getParameter( PARAMETER_ACTION ) );
+	}
+
+	/**
+	 * Tells if the If-None-Match header of a request matches an entity tag
+	 * 
+	 * @param strIfNoneMatch
+	 *                       The If-None-Match header, may be null
+	 * @param strETag
+	 *                       The current entity tag
+	 * @return true if the client has the current version
+	 */
+	private static boolean isNotModified( String strIfNoneMatch, String strETag )
+	{
+		if( StringUtils.isBlank( strIfNoneMatch ) )
+		{
+			return false;
+		}
+
+		for( String strTag : strIfNoneMatch.split( ETAG_LIST_SEPARATOR ) )
+		{
+			String strCleanTag = StringUtils.removeStart( strTag.trim( ), ETAG_WEAK_PREFIX );
+
+			if( ETAG_ANY.equals( strCleanTag ) || strETag.equals( strCleanTag ) )
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -34,32 +34,36 @@
 package fr.paris.lutece.plugins.menus.web;
 
 import fr.paris.lutece.plugins.menus.business.Menus;
-import fr.paris.lutece.plugins.menus.business.MenusHome;
-import fr.paris.lutece.plugins.menus.service.MenusPlugin;
-import fr.paris.lutece.portal.business.XmlContent;
-import fr.paris.lutece.portal.business.page.Page;
-import fr.paris.lutece.portal.business.page.PageHome;
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.plugins.menus.service.MenusRegistryService;
+import fr.paris.lutece.plugins.menus.service.PageVisibility;
+import fr.paris.lutece.plugins.menus.service.PageVisibilityService;
+import fr.paris.lutece.plugins.menus.service.cache.MenusFragmentCacheService;
 import fr.paris.lutece.portal.business.portalcomponent.PortalComponentHome;
 import fr.paris.lutece.portal.business.style.ModeHome;
 import fr.paris.lutece.portal.business.stylesheet.StyleSheet;
 import fr.paris.lutece.portal.service.content.PageData;
 import fr.paris.lutece.portal.service.html.XmlTransformerService;
 import fr.paris.lutece.portal.service.includes.PageInclude;
-import fr.paris.lutece.portal.service.plugin.Plugin;
-import fr.paris.lutece.portal.service.plugin.PluginService;
 import fr.paris.lutece.portal.service.portal.PortalMenuService;
 import fr.paris.lutece.portal.service.portal.PortalService;
 import fr.paris.lutece.portal.service.util.AppLogService;
 import fr.paris.lutece.portal.web.constants.Parameters;
-import fr.paris.lutece.util.xml.XmlUtil;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
+import javax.xml.transform.Source;
+import javax.xml.transform.sax.SAXSource;
+
+import jakarta.enterprise.inject.spi.CDI;
 import jakarta.servlet.http.HttpServletRequest;
 
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
 /**
  * This class provides the list of the page associated by the main menu of the
  * site
@@ -70,6 +74,14 @@ public class TreeMenuPageInclude implements PageInclude
 	// Constants
 	private static final int PORTAL_COMPONENT_MENU_TREE = 7;
 	private static final String MENU_MARKER = "page_tree_menu";
+	private static final String FRAGMENT_PREFIX = "tree_menu_page.";
+
+	private PageVisibilityService _pageVisibilityService = CDI.current( ).select( PageVisibilityService.class )
+			.get( );
+	private MenusRegistryService _menusRegistryService = CDI.current( ).select( MenusRegistryService.class )
+			.get( );
+	private MenusFragmentCacheService _fragmentCacheService = CDI.current( )
+			.select( MenusFragmentCacheService.class ).get( );
 
 	/**
 	 * Substitue specific Freemarker markers in the page template.
@@ -105,22 +117,46 @@ public class TreeMenuPageInclude implements PageInclude
 			 * int nCurrentPageId = ( request.getParameter( Parameters.PAGE_ID ) == null ) ?
 			 * 0 : Integer.parseInt( request.getParameter( Parameters.PAGE_ID ) );
 			 */
-			Plugin plugin = PluginService.getPlugin( MenusPlugin.PLUGIN_NAME );
-
-			for( Menus menus : MenusHome.findAll( plugin ) )
+			for( Menus menus : _menusRegistryService.getMenusByTypePrefix( MENU_MARKER ) )
 			{
-				if( menus.getMenuType( ).startsWith( MENU_MARKER ) )
-				{
-					String strTreeMenuPage = ( ( getTreeMenuPage( nCurrentPageId, nMode, menus, request ) == null ) ? ""
-							: getTreeMenuPage( nCurrentPageId,
-									nMode, menus, request ) );
-					String strMarkerTreeMenuPage = menus.getMenuMarker( );
-					rootModel.put( strMarkerTreeMenuPage, strTreeMenuPage );
-				}
+				String strTreeMenuPage = getCachedTreeMenuPage( nCurrentPageId, nMode, menus, request );
+				String strMarkerTreeMenuPage = menus.getMenuMarker( );
+				rootModel.put( strMarkerTreeMenuPage, strTreeMenuPage );
 			}
 		}
 	}
 
+	/**
+	 * Returns the tree menu bar from the fragment cache, building it on a miss.
+	 * The key holds the stylesheet of the mode and a hash of its source, so that
+	 * an edited stylesheet is used at once.
+	 *
+	 * @param nIdPage
+	 *                The page id
+	 * @param nMode
+	 *                the mode id
+	 * @param menus
+	 *                the current menu
+	 * @param request
+	 *                The HttpServletRequest
+	 * @return The tree menu bar, or an empty string
+	 */
+	private String getCachedTreeMenuPage( int nIdPage, int nMode, Menus menus, HttpServletRequest request )
+	{
+		StyleSheet xslSource = getStyleSheet( nMode );
+		String strFragment = FRAGMENT_PREFIX + menus.getIdMenu( );
+
+		if( xslSource != null )
+		{
+			strFragment += "." + xslSource.getId( ) + "." + Integer.toHexString( Arrays.hashCode( xslSource.getSource( ) ) );
+		}
+
+		String strTreeMenuPage = _fragmentCacheService.getFragment( strFragment, nIdPage, nMode, request,
+				( ) -> getTreeMenuPage( nIdPage, nMode, menus, request, xslSource ) );
+
+		return ( strTreeMenuPage == null ) ? "" : strTreeMenuPage;
+	}
+
 	/**
 	 * Builds the tree menu bar
 	 *
@@ -136,84 +172,65 @@ public class TreeMenuPageInclude implements PageInclude
 	 */
 	public String getTreeMenuPage( int nIdPage, int nMode, Menus menus, HttpServletRequest request )
 	{
-		StringBuffer strXml = new StringBuffer( );
-
-		String strCurrentPageId = Integer.toString( nIdPage );
+		return getTreeMenuPage( nIdPage, nMode, menus, request, getStyleSheet( nMode ) );
+	}
 
-		Collection < Page > listPagesMenu;
+	/**
+	 * Builds the tree menu bar with a given stylesheet
+	 *
+	 * @param nIdPage
+	 *                  The page id
+	 * @param nMode
+	 *                  the mode id
+	 * @param menus
+	 *                  the current menu
+	 * @param request
+	 *                  The HttpServletRequest
+	 * @param xslSource
+	 *                  The stylesheet of the mode
+	 * @return The list of the tree menus layed out with the stylesheet
+	 */
+	private String getTreeMenuPage( int nIdPage, int nMode, Menus menus, HttpServletRequest request,
+			StyleSheet xslSource )
+	{
+		// Shared by the users granted the same roles
+		PageVisibility visibility = _pageVisibilityService.getVisibility( request );
+		SiteTreeSnapshot snapshot = visibility.getSnapshot( );
 
-		listPagesMenu = PageHome.getChildPagesMinimalData( menus.getIdPageRoot( ) );
-		strXml.append( XmlUtil.getXmlHeader( ) );
-		XmlUtil.beginElement( strXml, XmlContent.TAG_MENU_LIST );
+		// The tree is streamed to the stylesheet, without building an XML document
+		XMLReader treeMenuReader = new TreeMenuPageXmlReader( snapshot, snapshot.indexOf( menus.getIdPageRoot( ) ),
+				nIdPage, nIndex -> ( nMode == PortalMenuService.MODE_ADMIN ) || visibility.isVisible( nIndex ) );
+		Source xmlSource = new SAXSource( treeMenuReader, new InputSource( ) );
 
-		int nMenuIndex = 1;
+		Properties outputProperties = ModeHome.getOuputXslProperties( nMode );
 
-		for( Page menuPage : listPagesMenu )
-		{
-			if( ( menuPage.isVisible( request ) ) || ( nMode == PortalMenuService.MODE_ADMIN ) )
-			{
-				XmlUtil.beginElement( strXml, XmlContent.TAG_MENU );
-				XmlUtil.addElement( strXml, XmlContent.TAG_MENU_INDEX, nMenuIndex );
-				XmlUtil.addElement( strXml, XmlContent.TAG_PAGE_ID, menuPage.getId( ) );
-				XmlUtil.addElementHtml( strXml, XmlContent.TAG_PAGE_NAME, menuPage.getName( ) );
-				XmlUtil.addElementHtml( strXml, XmlContent.TAG_PAGE_DESCRIPTION, menuPage.getDescription( ) );
-				XmlUtil.addElementHtml( strXml, XmlContent.TAG_CURRENT_PAGE_ID, strCurrentPageId );
-
-				// Seek of the sub-menus
-				XmlUtil.beginElement( strXml, XmlContent.TAG_SUBLEVEL_MENU_LIST );
-
-				Collection < Page > listSubLevelMenuPages = PageHome.getChildPagesMinimalData( menuPage.getId( ) );
-				int nSubLevelMenuIndex = 1;
-
-				for( Page subLevelMenuPage : listSubLevelMenuPages )
-				{
-					if( ( subLevelMenuPage.isVisible( request ) ) || ( nMode == PortalMenuService.MODE_ADMIN ) )
-					{
-						XmlUtil.beginElement( strXml, XmlContent.TAG_SUBLEVEL_MENU );
-						XmlUtil.addElement( strXml, XmlContent.TAG_MENU_INDEX, nMenuIndex );
-						XmlUtil.addElement( strXml, XmlContent.TAG_SUBLEVEL_INDEX, nSubLevelMenuIndex );
-						XmlUtil.addElement( strXml, XmlContent.TAG_PAGE_ID, subLevelMenuPage.getId( ) );
-						XmlUtil.addElementHtml( strXml, XmlContent.TAG_PAGE_NAME, subLevelMenuPage.getName( ) );
-						XmlUtil.addElementHtml( strXml, XmlContent.TAG_PAGE_DESCRIPTION,
-								subLevelMenuPage.getDescription( ) );
-						XmlUtil.addElementHtml( strXml, XmlContent.TAG_CURRENT_PAGE_ID, strCurrentPageId );
-						XmlUtil.endElement( strXml, XmlContent.TAG_SUBLEVEL_MENU );
-					}
-				}
-
-				XmlUtil.endElement( strXml, XmlContent.TAG_SUBLEVEL_MENU_LIST );
-				XmlUtil.endElement( strXml, XmlContent.TAG_MENU );
-				nMenuIndex ++ ;
-			}
-		}
+		Map < String, String > mapParamRequest = new HashMap < String, String >( );
+		PortalService.setXslPortalPath( mapParamRequest, nMode );
 
-		XmlUtil.endElement( strXml, XmlContent.TAG_MENU_LIST );
+		XmlTransformerService xmlTransformerService = new XmlTransformerService( );
 
-		StyleSheet xslSource;
+		return xmlTransformerService.transformBySourceWithXslCache( xmlSource, xslSource, mapParamRequest,
+				outputProperties );
+	}
 
+	/**
+	 * Returns the XSL stylesheet of the tree menu for a mode
+	 *
+	 * @param nMode
+	 *              the mode id
+	 * @return the stylesheet
+	 */
+	private static StyleSheet getStyleSheet( int nMode )
+	{
 		// Selection of the XSL stylesheet
 		switch( nMode )
 		{
 			case PortalMenuService.MODE_NORMAL :
 			case PortalMenuService.MODE_ADMIN :
-				xslSource = PortalComponentHome.getXsl( PORTAL_COMPONENT_MENU_TREE, PortalMenuService.MODE_NORMAL );
-
-				break;
+				return PortalComponentHome.getXsl( PORTAL_COMPONENT_MENU_TREE, PortalMenuService.MODE_NORMAL );
 
 			default :
-				xslSource = PortalComponentHome.getXsl( PORTAL_COMPONENT_MENU_TREE, nMode );
-
-				break;
+				return PortalComponentHome.getXsl( PORTAL_COMPONENT_MENU_TREE, nMode );
 		}
-
-		Properties outputProperties = ModeHome.getOuputXslProperties( nMode );
-
-		Map < String, String > mapParamRequest = new HashMap < String, String >( );
-		PortalService.setXslPortalPath( mapParamRequest, nMode );
-
-		XmlTransformerService xmlTransformerService = new XmlTransformerService( );
-
-		return xmlTransformerService.transformBySourceWithXslCache( strXml.toString( ), xslSource, mapParamRequest,
-				outputProperties );
 	}
 }
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.web;
+
+import fr.paris.lutece.plugins.menus.business.SiteTreeSnapshot;
+import fr.paris.lutece.portal.business.XmlContent;
+
+import java.util.function.IntPredicate;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Streams the tree menu of a root page as SAX events, with the same elements
+ * as the XML document expected by the tree menu stylesheet. The stylesheet is
+ * applied to these events directly, so the document is neither serialized nor
+ * parsed.
+ */
+class TreeMenuPageXmlReader implements XMLReader
+{
+	private static final String FEATURE_NAMESPACES = "http://xml.org/sax/features/namespaces";
+	private static final String FEATURE_NAMESPACE_PREFIXES = "http://xml.org/sax/features/namespace-prefixes";
+	private static final String NO_NAMESPACE = "";
+
+	private final SiteTreeSnapshot _snapshot;
+	private final int _nRootIndex;
+	private final String _strCurrentPageId;
+	private final IntPredicate _isVisible;
+	private final AttributesImpl _attributes = new AttributesImpl( );
+	private ContentHandler _contentHandler;
+	private DTDHandler _dtdHandler;
+	private EntityResolver _entityResolver;
+	private ErrorHandler _errorHandler;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param snapshot
+	 *                   The site tree snapshot
+	 * @param nRootIndex
+	 *                   The index of the root page in the snapshot, or
+	 *                   {@link SiteTreeSnapshot#NONE}
+	 * @param nIdPage
+	 *                   The current page id
+	 * @param isVisible
+	 *                   Tells if the page at a snapshot index is displayed
+	 */
+	TreeMenuPageXmlReader( SiteTreeSnapshot snapshot, int nRootIndex, int nIdPage, IntPredicate isVisible )
+	{
+		_snapshot = snapshot;
+		_nRootIndex = nRootIndex;
+		_strCurrentPageId = Integer.toString( nIdPage );
+		_isVisible = isVisible;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void parse( InputSource input ) throws SAXException
+	{
+		_contentHandler.startDocument( );
+		startElement( XmlContent.TAG_MENU_LIST );
+
+		int nMenuIndex = 1;
+		int nFirstMenuPage = ( _nRootIndex == SiteTreeSnapshot.NONE ) ? SiteTreeSnapshot.NONE
+				: _snapshot.getFirstChild( _nRootIndex );
+
+		for( int nMenuPage = nFirstMenuPage ; nMenuPage != SiteTreeSnapshot.NONE ;
+				nMenuPage = _snapshot.getNextSibling( nMenuPage ) )
+		{
+			if( _isVisible.test( nMenuPage ) )
+			{
+				startElement( XmlContent.TAG_MENU );
+				addElement( XmlContent.TAG_MENU_INDEX, Integer.toString( nMenuIndex ) );
+				addPage( nMenuPage );
+
+				// Seek of the sub-menus
+				startElement( XmlContent.TAG_SUBLEVEL_MENU_LIST );
+
+				int nSubLevelMenuIndex = 1;
+
+				for( int nSubLevelMenuPage = _snapshot.getFirstChild( nMenuPage ) ;
+						nSubLevelMenuPage != SiteTreeSnapshot.NONE ;
+						nSubLevelMenuPage = _snapshot.getNextSibling( nSubLevelMenuPage ) )
+				{
+					if( _isVisible.test( nSubLevelMenuPage ) )
+					{
+						startElement( XmlContent.TAG_SUBLEVEL_MENU );
+						addElement( XmlContent.TAG_MENU_INDEX, Integer.toString( nMenuIndex ) );
+						addElement( XmlContent.TAG_SUBLEVEL_INDEX, Integer.toString( nSubLevelMenuIndex ) );
+						addPage( nSubLevelMenuPage );
+						endElement( XmlContent.TAG_SUBLEVEL_MENU );
+					}
+				}
+
+				endElement( XmlContent.TAG_SUBLEVEL_MENU_LIST );
+				endElement( XmlContent.TAG_MENU );
+				nMenuIndex ++ ;
+			}
+		}
+
+		endElement( XmlContent.TAG_MENU_LIST );
+		_contentHandler.endDocument( );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void parse( String strSystemId ) throws SAXException
+	{
+		parse( new InputSource( strSystemId ) );
+	}
+
+	/**
+	 * Emit the elements describing a page
+	 * 
+	 * @param nIndex
+	 *               The index of the page in the snapshot
+	 * @throws SAXException
+	 *                      if the content handler fails
+	 */
+	private void addPage( int nIndex ) throws SAXException
+	{
+		addElement( XmlContent.TAG_PAGE_ID, Integer.toString( _snapshot.getPageId( nIndex ) ) );
+		addElement( XmlContent.TAG_PAGE_NAME, _snapshot.getName( nIndex ) );
+		addElement( XmlContent.TAG_PAGE_DESCRIPTION, _snapshot.getDescription( nIndex ) );
+		addElement( XmlContent.TAG_CURRENT_PAGE_ID, _strCurrentPageId );
+	}
+
+	/**
+	 * Emit an element with a text value
+	 * 
+	 * @param strTag
+	 *                 The element name
+	 * @param strValue
+	 *                 The text, may be null
+	 * @throws SAXException
+	 *                      if the content handler fails
+	 */
+	private void addElement( String strTag, String strValue ) throws SAXException
+	{
+		startElement( strTag );
+
+		if( strValue != null && ! strValue.isEmpty( ) )
+		{
+			_contentHandler.characters( strValue.toCharArray( ), 0, strValue.length( ) );
+		}
+
+		endElement( strTag );
+	}
+
+	private void startElement( String strTag ) throws SAXException
+	{
+		_contentHandler.startElement( NO_NAMESPACE, strTag, strTag, _attributes );
+	}
+
+	private void endElement( String strTag ) throws SAXException
+	{
+		_contentHandler.endElement( NO_NAMESPACE, strTag, strTag );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean getFeature( String strName ) throws SAXNotRecognizedException
+	{
+		if( FEATURE_NAMESPACES.equals( strName ) )
+		{
+			return true;
+		}
+
+		if( FEATURE_NAMESPACE_PREFIXES.equals( strName ) )
+		{
+			return false;
+		}
+
+		throw new SAXNotRecognizedException( strName );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setFeature( String strName, boolean bValue ) throws SAXNotRecognizedException
+	{
+		// The events always carry the local names and no prefix mapping
+		if( getFeature( strName ) != bValue )
+		{
+			throw new SAXNotRecognizedException( strName );
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getProperty( String strName ) throws SAXNotRecognizedException
+	{
+		throw new SAXNotRecognizedException( strName );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setProperty( String strName, Object value ) throws SAXNotRecognizedException
+	{
+		throw new SAXNotRecognizedException( strName );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setEntityResolver( EntityResolver resolver )
+	{
+		_entityResolver = resolver;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public EntityResolver getEntityResolver( )
+	{
+		return _entityResolver;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setDTDHandler( DTDHandler handler )
+	{
+		_dtdHandler = handler;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DTDHandler getDTDHandler( )
+	{
+		return _dtdHandler;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setContentHandler( ContentHandler handler )
+	{
+		_contentHandler = handler;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ContentHandler getContentHandler( )
+	{
+		return _contentHandler;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setErrorHandler( ErrorHandler handler )
+	{
+		_errorHandler = handler;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ErrorHandler getErrorHandler( )
+	{
+		return _errorHandler;
+	}
+}
@@ -34,14 +34,13 @@
 package fr.paris.lutece.plugins.menus.web;
 
 import fr.paris.lutece.plugins.menus.business.Menus;
-import fr.paris.lutece.plugins.menus.business.MenusHome;
-import fr.paris.lutece.plugins.menus.service.MenusPlugin;
+import fr.paris.lutece.plugins.menus.service.MenusRegistryService;
 import fr.paris.lutece.plugins.menus.service.MenusService;
+import fr.paris.lutece.plugins.menus.service.cache.MenusFragmentCacheService;
 import fr.paris.lutece.portal.service.content.PageData;
 import fr.paris.lutece.portal.service.content.XPageAppService;
 import fr.paris.lutece.portal.service.includes.PageInclude;
 import fr.paris.lutece.portal.service.plugin.Plugin;
-import fr.paris.lutece.portal.service.plugin.PluginService;
 import fr.paris.lutece.portal.service.template.AppTemplateService;
 import fr.paris.lutece.portal.web.xpages.XPageApplicationEntry;
 import fr.paris.lutece.util.html.HtmlTemplate;
@@ -51,6 +50,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 import jakarta.enterprise.inject.spi.CDI;
 import jakarta.servlet.http.HttpServletRequest;
@@ -65,8 +65,13 @@ public class XPageMenuInclude implements PageInclude
 	private static final String TEMPLATE_MENU_XPAGES = "skin/plugins/menus/xpages_list.html";
 	private static final String MARK_XPAGES_LIST = "xpages_list";
 	private static final String MENU_MARKER = "xpage_menu";
+	private static final String FRAGMENT_XPAGES_LIST = "xpage_menu.list";
 
 	private MenusService _menusService = CDI.current( ).select( MenusService.class ).get( );
+	private MenusRegistryService _menusRegistryService = CDI.current( ).select( MenusRegistryService.class )
+			.get( );
+	private MenusFragmentCacheService _fragmentCacheService = CDI.current( )
+			.select( MenusFragmentCacheService.class ).get( );
 
 	/**
 	 * Substitue specific Freemarker markers in the page template.
@@ -85,21 +90,18 @@ public class XPageMenuInclude implements PageInclude
 	{
 		if( request != null )
 		{
-			Plugin plugin = PluginService.getPlugin( MenusPlugin.PLUGIN_NAME );
-
-			for( Menus menus : MenusHome.findAll( plugin ) )
+			for( Menus menus : _menusRegistryService.getMenusByType( MENU_MARKER ) )
 			{
-				if( menus.getMenuType( ).equals( MENU_MARKER ) )
-				{
-					String strMarkerMenuXPage = menus.getMenuMarker( );
-					rootModel.put( strMarkerMenuXPage, getXPageList( nMode, request ) );
-				}
+				String strMarkerMenuXPage = menus.getMenuMarker( );
+				rootModel.put( strMarkerMenuXPage, getXPageList( nMode, request ) );
 			}
 		}
 	}
 
 	/**
-	 * Display the list of plugins app installed on the instance of lutece
+	 * Display the list of plugins app installed on the instance of lutece. The
+	 * fragment key holds the names of the enabled applications, so that the list
+	 * is rendered again when an application is enabled or disabled.
 	 *
 	 * @param nMode
 	 *                The current mode
@@ -109,14 +111,28 @@ public class XPageMenuInclude implements PageInclude
 	 */
 	private String getXPageList( int nMode, HttpServletRequest request )
 	{
-		HashMap < String, Object > modelList = new HashMap < String, Object >( );
-		Collection < Plugin > pluginList = new ArrayList < Plugin >( );
-		Locale locale = null;
-		if( request != null )
+		Collection < Plugin > pluginList = getEnabledPlugins( );
+		int nHash = 1;
+
+		for( Plugin plugin : pluginList )
 		{
-			locale = request.getLocale( );
+			nHash = 31 * nHash + Objects.hashCode( plugin.getName( ) );
 		}
 
+		return _fragmentCacheService.getFragment( FRAGMENT_XPAGES_LIST + "." + Integer.toHexString( nHash ),
+				MenusFragmentCacheService.ANY_PAGE, nMode, request,
+				( ) -> renderXPageList( nMode, request, pluginList ) );
+	}
+
+	/**
+	 * Returns the plugins of the enabled applications
+	 *
+	 * @return the plugins
+	 */
+	private static Collection < Plugin > getEnabledPlugins( )
+	{
+		Collection < Plugin > pluginList = new ArrayList < Plugin >( );
+
 		// Scan of the list
 		for( XPageApplicationEntry entry : XPageAppService.getXPageApplicationsList( ) )
 		{
@@ -131,6 +147,29 @@ public class XPageMenuInclude implements PageInclude
 			}
 		}
 
+		return pluginList;
+	}
+
+	/**
+	 * Render the list of plugins app installed on the instance of lutece
+	 *
+	 * @param nMode
+	 *                   The current mode
+	 * @param request
+	 *                   The HTTP request
+	 * @param pluginList
+	 *                   The plugins of the enabled applications
+	 * @return the list
+	 */
+	private String renderXPageList( int nMode, HttpServletRequest request, Collection < Plugin > pluginList )
+	{
+		HashMap < String, Object > modelList = new HashMap < String, Object >( );
+		Locale locale = null;
+		if( request != null )
+		{
+			locale = _fragmentCacheService.getLocale( request );
+		}
+
 		// Define the site path from url, by mode
 		modelList.put( MenusService.MARKER_SITE_PATH, _menusService.getSitePath( nMode ) );
 
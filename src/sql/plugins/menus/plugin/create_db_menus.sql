@@ -49,3 +49,17 @@ CREATE TABLE menus_custom_menu_items (
   PRIMARY KEY (id_item),
   FOREIGN KEY (id_parent_menu) REFERENCES menus_custom_menu(id_menu) ON DELETE CASCADE
 );
+
+--
+-- Structure for table menus_cache_version
+--
+
+DROP TABLE IF EXISTS menus_cache_version;
+CREATE TABLE menus_cache_version (
+  id_version BIGINT AUTO_INCREMENT,
+  scope varchar(50) NOT NULL,
+  id_page INT DEFAULT -1 NOT NULL,
+  origin varchar(100) DEFAULT '' NOT NULL,
+  date_creation TIMESTAMP NOT NULL,
+  PRIMARY KEY (id_version)
+);
@@ -0,0 +1,16 @@
+-- liquibase formatted sql
+-- changeset menus:update_db_menus-3.0.0-3.0.1.sql
+-- preconditions onFail:MARK_RAN onError:WARN
+
+--
+-- Structure for table menus_cache_version
+--
+
+CREATE TABLE menus_cache_version (
+  id_version BIGINT AUTO_INCREMENT,
+  scope varchar(50) NOT NULL,
+  id_page INT DEFAULT -1 NOT NULL,
+  origin varchar(100) DEFAULT '' NOT NULL,
+  date_creation TIMESTAMP NOT NULL,
+  PRIMARY KEY (id_version)
+);
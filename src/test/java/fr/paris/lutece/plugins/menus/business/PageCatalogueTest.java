@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.business;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class PageCatalogueTest
+{
+    private static PageCatalogue getCatalogue( )
+    {
+        SiteTreeSnapshot snapshot = SiteTreeSnapshot.build( Arrays.asList( new PageInfo( 1, 0, "Home", "Welcome", 1, "none" ),
+                new PageInfo( 3, 1, "News", "Latest news", 1, "none" ), new PageInfo( 2, 1, "About us", "Who we are", 2, "none" ),
+                new PageInfo( 5, 2, "Team", "The news team", 1, "none" ), new PageInfo( 4, 3, "Archive", "Old news", 1, "none" ) ) );
+
+        return PageCatalogue.build( snapshot, 1 );
+    }
+
+    private static int [ ] pageIds( PageCatalogue catalogue, int [ ] entries )
+    {
+        return Arrays.stream( entries ).map( catalogue::getPageId ).toArray( );
+    }
+
+    @Test
+    public void testBlankCriteriaListsAllPagesInTreeOrder( )
+    {
+        PageCatalogue catalogue = getCatalogue( );
+
+        assertArrayEquals( new int [ ] { 1, 3, 4, 2, 5 }, pageIds( catalogue, catalogue.search( null ) ) );
+        assertArrayEquals( new int [ ] { 1, 3, 4, 2, 5 }, pageIds( catalogue, catalogue.search( "  " ) ) );
+        assertEquals( "About us - Who we are", catalogue.getLabel( 3 ) );
+    }
+
+    @Test
+    public void testPrefixSearch( )
+    {
+        PageCatalogue catalogue = getCatalogue( );
+
+        // Case insensitive prefix of the name or of the description
+        assertArrayEquals( new int [ ] { 3, 4, 5 }, pageIds( catalogue, catalogue.search( "NEW" ) ) );
+        assertArrayEquals( new int [ ] { 2 }, pageIds( catalogue, catalogue.search( "abo" ) ) );
+        assertArrayEquals( new int [ ] { 4 }, pageIds( catalogue, catalogue.search( "4" ) ) );
+        assertArrayEquals( new int [ ] { }, pageIds( catalogue, catalogue.search( "contact" ) ) );
+    }
+
+    @Test
+    public void testPagesMatchingMoreWordsComeFirst( )
+    {
+        PageCatalogue catalogue = getCatalogue( );
+
+        assertArrayEquals( new int [ ] { 5, 3, 4 }, pageIds( catalogue, catalogue.search( "news team" ) ) );
+    }
+}
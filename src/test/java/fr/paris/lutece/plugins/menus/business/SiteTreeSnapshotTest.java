@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.business;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class SiteTreeSnapshotTest
+{
+    private static List < PageInfo > getPages( )
+    {
+        // Sorted by parent page and then by order, as returned by the DAO
+        return Arrays.asList( new PageInfo( 1, 0, "Home", "", 1, "none" ), new PageInfo( 3, 1, "News", "", 1, "none" ),
+                new PageInfo( 2, 1, "About", "", 2, "none" ), new PageInfo( 5, 2, "Team", "", 1, "members" ),
+                new PageInfo( 4, 3, "Archive", "", 1, "none" ) );
+    }
+
+    @Test
+    public void testHierarchy( )
+    {
+        SiteTreeSnapshot snapshot = SiteTreeSnapshot.build( getPages( ) );
+
+        assertEquals( 5, snapshot.size( ) );
+
+        int nHome = snapshot.indexOf( 1 );
+        int nNews = snapshot.getFirstChild( nHome );
+        int nAbout = snapshot.getNextSibling( nNews );
+
+        assertEquals( 3, snapshot.getPageId( nNews ) );
+        assertEquals( 2, snapshot.getPageId( nAbout ) );
+        assertEquals( SiteTreeSnapshot.NONE, snapshot.getNextSibling( nAbout ) );
+        assertEquals( SiteTreeSnapshot.NONE, snapshot.getParent( nHome ) );
+        assertEquals( 0, snapshot.getParentPageId( nHome ) );
+        assertEquals( 1, snapshot.getParentPageId( nAbout ) );
+        assertEquals( "Team", snapshot.getName( snapshot.getFirstChild( nAbout ) ) );
+        assertEquals( "members", snapshot.getRole( snapshot.indexOf( 5 ) ) );
+    }
+
+    @Test
+    public void testUnknownPage( )
+    {
+        SiteTreeSnapshot snapshot = SiteTreeSnapshot.build( getPages( ) );
+
+        assertEquals( SiteTreeSnapshot.NONE, snapshot.indexOf( 0 ) );
+        assertEquals( SiteTreeSnapshot.NONE, snapshot.indexOf( 42 ) );
+        assertEquals( SiteTreeSnapshot.NONE, snapshot.indexOf( - 1 ) );
+    }
+
+    @Test
+    public void testRestrictingRoles( )
+    {
+        SiteTreeSnapshot snapshot = SiteTreeSnapshot.build( getPages( ) );
+
+        assertEquals( 1, snapshot.getRestrictingRoleCount( ) );
+        assertEquals( "members", snapshot.getRestrictingRole( 0 ) );
+        assertEquals( 0, snapshot.getRoleId( snapshot.indexOf( 5 ) ) );
+        assertEquals( SiteTreeSnapshot.NONE, snapshot.getRoleId( snapshot.indexOf( 1 ) ) );
+    }
+
+    @Test
+    public void testAncestors( )
+    {
+        SiteTreeSnapshot snapshot = SiteTreeSnapshot.build( getPages( ) );
+        int nArchive = snapshot.indexOf( 4 );
+
+        assertEquals( 0, snapshot.getDepth( snapshot.indexOf( 1 ) ) );
+        assertEquals( 2, snapshot.getDepth( nArchive ) );
+        assertEquals( SiteTreeSnapshot.NONE, snapshot.getTopLevelAncestor( snapshot.indexOf( 1 ) ) );
+        assertEquals( snapshot.indexOf( 3 ), snapshot.getTopLevelAncestor( snapshot.indexOf( 3 ) ) );
+        assertEquals( snapshot.indexOf( 3 ), snapshot.getTopLevelAncestor( nArchive ) );
+        assertArrayEquals( new int [ ] { snapshot.indexOf( 1 ), snapshot.indexOf( 3 ), nArchive },
+                snapshot.getPath( nArchive ) );
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import fr.paris.lutece.plugins.menus.business.CustomMenu;
+import fr.paris.lutece.plugins.menus.business.CustomMenuItem;
+
+public class CustomMenuGraphLoaderTest
+{
+    private static CustomMenu menu( int nId )
+    {
+        CustomMenu menu = new CustomMenu( );
+        menu.setId( nId );
+        menu.setName( "menu" + nId );
+
+        return menu;
+    }
+
+    private static CustomMenuItem item( int nId, int nParentMenuId, String strType, String strSourceItemId )
+    {
+        CustomMenuItem item = new CustomMenuItem( );
+        item.setId( nId );
+        item.setParentMenuId( nParentMenuId );
+        item.setType( strType );
+        item.setSourceItemId( strSourceItemId );
+        item.setLabel( "item" + nId );
+
+        return item;
+    }
+
+    @Test
+    public void testSubMenusAreWiredToTheMaximumDepth( )
+    {
+        // 1 -> 2 -> 3 -> 4
+        List < CustomMenu > listMenus = List.of( menu( 1 ), menu( 2 ), menu( 3 ), menu( 4 ) );
+        List < CustomMenuItem > listItems = List.of( item( 10, 1, "menu", "2" ), item( 20, 2, "menu", "3" ),
+                item( 30, 3, "menu", "4" ), item( 40, 4, "page", "7" ) );
+
+        List < CustomMenu > listGraph = CustomMenuGraphLoader.loadGraph( listMenus, listItems );
+
+        assertEquals( 4, listGraph.size( ) );
+
+        CustomMenu subMenu = listGraph.get( 0 ).getListItems( ).get( 0 ).getSubMenu( );
+        assertEquals( 2, subMenu.getId( ) );
+
+        CustomMenu subSubMenu = subMenu.getListItems( ).get( 0 ).getSubMenu( );
+        assertEquals( 3, subSubMenu.getId( ) );
+        assertEquals( 1, subSubMenu.getListItems( ).size( ) );
+        assertNull( subSubMenu.getListItems( ).get( 0 ).getSubMenu( ) );
+
+        // Each occurrence of a menu is a distinct copy
+        assertNotSame( listGraph.get( 1 ), subMenu );
+        assertNotNull( listGraph.get( 1 ).getListItems( ).get( 0 ).getSubMenu( )
+                .getListItems( ).get( 0 ).getSubMenu( ) );
+    }
+
+    @Test
+    public void testCyclesAreNotWired( )
+    {
+        // 1 -> 2 -> 1
+        List < CustomMenu > listMenus = List.of( menu( 1 ), menu( 2 ) );
+        List < CustomMenuItem > listItems = List.of( item( 10, 1, "menu", "2" ), item( 20, 2, "menu", "1" ) );
+
+        List < CustomMenu > listGraph = CustomMenuGraphLoader.loadGraph( listMenus, listItems );
+
+        CustomMenu subMenu = listGraph.get( 0 ).getListItems( ).get( 0 ).getSubMenu( );
+        assertEquals( 2, subMenu.getId( ) );
+        assertEquals( 1, subMenu.getListItems( ).size( ) );
+        assertNull( subMenu.getListItems( ).get( 0 ).getSubMenu( ) );
+    }
+
+    @Test
+    public void testLinksAreResolved( )
+    {
+        CustomMenuService service = new CustomMenuService( );
+        CustomMenuItem page = item( 1, 1, "page", "7" );
+        CustomMenuItem xpage = item( 2, 1, "xpage", "search" );
+        CustomMenuItem external = item( 3, 1, "external_url", null );
+        external.setUrl( "https://lutece.paris.fr" );
+        CustomMenuItem subMenu = item( 4, 1, "menu", "2" );
+
+        CustomMenu menu = menu( 1 );
+        menu.setListItems( List.of( page, xpage, external, subMenu ) );
+        service.resolveItems( List.of( menu ) );
+
+        assertEquals( "?page_id=7", page.getHref( ) );
+        assertTrue( page.isHrefRelative( ) );
+        assertEquals( "?page=search", xpage.getHref( ) );
+        assertTrue( xpage.isHrefRelative( ) );
+        assertEquals( "https://lutece.paris.fr", external.getHref( ) );
+        assertFalse( external.isHrefRelative( ) );
+        assertEquals( "#", subMenu.getHref( ) );
+        assertEquals( "item1", page.getLabel( ) );
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.paris.lutece.plugins.menus.business.MenuItem;
+import fr.paris.lutece.plugins.menus.business.PageInfo;
+import fr.paris.lutece.plugins.menus.service.cache.MainTreeMenuCacheService;
+import fr.paris.lutece.test.LuteceTestCase;
+import jakarta.enterprise.inject.spi.CDI;
+
+public class MainTreeMenuServiceTest extends LuteceTestCase
+{
+    private static final int THREADS = 16;
+    private static final int PAGE_ID = 42;
+
+    private MainTreeMenuCacheService _cacheService;
+    private CountingPageTreeService _pageTreeService;
+    private MainTreeMenuService _mainTreeMenuService;
+
+    /**
+     * Page tree service counting the tree builds
+     */
+    private static class CountingPageTreeService extends PageTreeService
+    {
+        private final AtomicInteger _nBuilds = new AtomicInteger( );
+        private volatile CountDownLatch _release = new CountDownLatch( 0 );
+        private final CountDownLatch _started = new CountDownLatch( 1 );
+
+        @Override
+        public MenuItem getPageMenuTree( int nPageId, int nDepth )
+        {
+            _nBuilds.incrementAndGet( );
+            _started.countDown( );
+
+            try
+            {
+                // Give the other threads time to pile up on the same key
+                Thread.sleep( 100 );
+                _release.await( 30, TimeUnit.SECONDS );
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread( ).interrupt( );
+            }
+
+            MenuItem item = new MenuItem( );
+            item.setPageInfo( new PageInfo( nPageId, 1, "Page " + nPageId, "", 1, "none" ) );
+
+            for ( int i = 1; i <= 3; i++ )
+            {
+                MenuItem child = new MenuItem( );
+                child.setPageInfo( new PageInfo( nPageId * 100 + i, nPageId, "Page " + i, "", i, "none" ) );
+                item.addChild( child );
+            }
+
+            return item.freeze( );
+        }
+    }
+
+    @BeforeEach
+    public void initServices( )
+    {
+        _cacheService = CDI.current( ).select( MainTreeMenuCacheService.class ).get( );
+        _cacheService.enableCache( true );
+        _cacheService.resetCache( );
+        _pageTreeService = new CountingPageTreeService( );
+        _mainTreeMenuService = new MainTreeMenuService( _cacheService, _pageTreeService, null );
+    }
+
+    private static List < MenuItem > runConcurrently( Callable < MenuItem > task ) throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+        CountDownLatch start = new CountDownLatch( 1 );
+        List < Future < MenuItem > > listFutures = new ArrayList <>( );
+
+        try
+        {
+            for ( int i = 0; i < THREADS; i++ )
+            {
+                listFutures.add( executor.submit( ( ) -> {
+                    start.await( );
+                    return task.call( );
+                } ) );
+            }
+
+            start.countDown( );
+
+            List < MenuItem > listResults = new ArrayList <>( );
+
+            for ( Future < MenuItem > future : listFutures )
+            {
+                listResults.add( future.get( 30, TimeUnit.SECONDS ) );
+            }
+
+            return listResults;
+        }
+        finally
+        {
+            executor.shutdownNow( );
+        }
+    }
+
+    @Test
+    public void testConcurrentMissesLoadOnce( ) throws Exception
+    {
+        List < MenuItem > listResults = runConcurrently( ( ) -> _mainTreeMenuService.getTreeMenuItems( PAGE_ID, 1 ) );
+
+        assertEquals( 1, _pageTreeService._nBuilds.get( ) );
+
+        for ( MenuItem result : listResults )
+        {
+            assertSame( listResults.get( 0 ), result );
+        }
+    }
+
+    @Test
+    public void testHitsDoNotLoad( ) throws Exception
+    {
+        MenuItem cached = _mainTreeMenuService.getTreeMenuItems( PAGE_ID, 1 );
+        _pageTreeService._nBuilds.set( 0 );
+
+        List < MenuItem > listResults = runConcurrently( ( ) -> {
+            MenuItem root = _mainTreeMenuService.getTreeMenuItems( PAGE_ID, 1 );
+            assertThrows( IllegalStateException.class, ( ) -> root.addChild( new MenuItem( ) ) );
+            assertThrows( UnsupportedOperationException.class, ( ) -> root.getChilds( ).add( new MenuItem( ) ) );
+            return root;
+        } );
+
+        assertEquals( 0, _pageTreeService._nBuilds.get( ) );
+
+        for ( MenuItem result : listResults )
+        {
+            assertSame( cached, result );
+            assertTrue( result.isFrozen( ) );
+            assertEquals( 3, result.getChilds( ).get( 0 ).getChilds( ).size( ) );
+        }
+    }
+
+    @Test
+    public void testTreeBuiltBeforeAnInvalidationIsNotCached( ) throws Exception
+    {
+        String strKey = _cacheService.getMenuTreeCacheKey( PAGE_ID );
+        _pageTreeService._release = new CountDownLatch( 1 );
+        ExecutorService executor = Executors.newSingleThreadExecutor( );
+
+        try
+        {
+            Future < MenuItem > future = executor.submit( ( ) -> _mainTreeMenuService.getTreeMenuItems( PAGE_ID, 1 ) );
+
+            assertTrue( _pageTreeService._started.await( 30, TimeUnit.SECONDS ) );
+            _cacheService.remove( strKey );
+            _pageTreeService._release.countDown( );
+
+            future.get( 30, TimeUnit.SECONDS );
+        }
+        finally
+        {
+            executor.shutdownNow( );
+        }
+
+        assertNull( _cacheService.get( strKey ) );
+
+        _mainTreeMenuService.getTreeMenuItems( PAGE_ID, 1 );
+        assertEquals( 2, _pageTreeService._nBuilds.get( ) );
+    }
+}
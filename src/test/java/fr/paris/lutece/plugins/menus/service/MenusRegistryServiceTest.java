@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import fr.paris.lutece.plugins.menus.business.Menus;
+import fr.paris.lutece.plugins.menus.business.MenusHome;
+import fr.paris.lutece.test.LuteceTestCase;
+import jakarta.enterprise.inject.spi.CDI;
+
+public class MenusRegistryServiceTest extends LuteceTestCase
+{
+    private static final String TYPE_PREFIX = "registry_test_";
+
+    private static boolean containsMenu( List < Menus > listMenus, int nIdMenu, String strName )
+    {
+        return listMenus.stream( ).anyMatch( menus -> menus.getIdMenu( ) == nIdMenu && strName.equals( menus.getMenuName( ) ) );
+    }
+
+    @Test
+    public void testHomeWritesReloadTheRegistry( )
+    {
+        MenusRegistryService registryService = CDI.current( ).select( MenusRegistryService.class ).get( );
+        assertTrue( registryService.getMenusByTypePrefix( TYPE_PREFIX ).isEmpty( ) );
+
+        Menus menus = new Menus( );
+        menus.setMenuName( "Registry test" );
+        menus.setTypeMenu( TYPE_PREFIX + "tree" );
+        menus.setIdPageRoot( 1 );
+        menus.setMenuMarker( "registry_test_marker" );
+        MenusHome.create( menus );
+
+        try
+        {
+            assertTrue( containsMenu( registryService.getMenusByTypePrefix( TYPE_PREFIX ), menus.getIdMenu( ), "Registry test" ) );
+
+            menus.setMenuName( "Registry test updated" );
+            MenusHome.update( menus );
+
+            assertEquals( 1, registryService.getMenusByTypePrefix( TYPE_PREFIX ).size( ) );
+            assertTrue( containsMenu( registryService.getMenusByTypePrefix( TYPE_PREFIX ), menus.getIdMenu( ), "Registry test updated" ) );
+        }
+        finally
+        {
+            MenusHome.remove( menus.getIdMenu( ) );
+        }
+
+        assertFalse( containsMenu( registryService.getMenusByTypePrefix( TYPE_PREFIX ), menus.getIdMenu( ), "Registry test updated" ) );
+        assertTrue( registryService.getMenusByTypePrefix( TYPE_PREFIX ).isEmpty( ) );
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest
+{
+    private static final int THREADS = 16;
+    private static final String KEY = "menus.tree42";
+
+    @Test
+    public void testConcurrentLoadsRunTheLoaderOnce( ) throws Exception
+    {
+        SingleFlight < String, Object > singleFlight = new SingleFlight <>( );
+        AtomicInteger nLoads = new AtomicInteger( );
+        ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+        CountDownLatch start = new CountDownLatch( 1 );
+        List < Future < Object > > listFutures = new ArrayList <>( );
+
+        try
+        {
+            for ( int i = 0; i < THREADS; i++ )
+            {
+                listFutures.add( executor.submit( ( ) -> {
+                    start.await( );
+                    return singleFlight.load( KEY, ( ) -> {
+                        nLoads.incrementAndGet( );
+
+                        try
+                        {
+                            // Give the other threads time to pile up on the same key
+                            Thread.sleep( 100 );
+                        }
+                        catch( InterruptedException e )
+                        {
+                            Thread.currentThread( ).interrupt( );
+                        }
+
+                        return new Object( );
+                    }, 10000 );
+                } ) );
+            }
+
+            start.countDown( );
+
+            Object first = listFutures.get( 0 ).get( 30, TimeUnit.SECONDS );
+
+            for ( Future < Object > future : listFutures )
+            {
+                assertSame( first, future.get( 30, TimeUnit.SECONDS ) );
+            }
+        }
+        finally
+        {
+            executor.shutdownNow( );
+        }
+
+        assertEquals( 1, nLoads.get( ) );
+        assertEquals( 0, singleFlight.getInFlightCount( ) );
+    }
+
+    @Test
+    public void testLoaderFailureIsPropagated( )
+    {
+        SingleFlight < String, Object > singleFlight = new SingleFlight <>( );
+
+        assertThrows( IllegalArgumentException.class, ( ) -> singleFlight.load( KEY, ( ) -> {
+            throw new IllegalArgumentException( );
+        }, 1000 ) );
+        assertEquals( 0, singleFlight.getInFlightCount( ) );
+    }
+}
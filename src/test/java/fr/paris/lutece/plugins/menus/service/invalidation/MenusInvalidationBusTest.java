@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.menus.service.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import fr.paris.lutece.plugins.menus.business.MenusInvalidationMessage;
+import fr.paris.lutece.plugins.menus.service.MenuCacheInvalidationService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class MenusInvalidationBusTest
+{
+    @Test
+    public void testPropagation( )
+    {
+        InProcessInvalidationTransport transport = new InProcessInvalidationTransport( );
+        RecordingInvalidationService serviceA = new RecordingInvalidationService( );
+        RecordingInvalidationService serviceB = new RecordingInvalidationService( );
+        MenusInvalidationBus busA = new MenusInvalidationBus( transport, serviceA, "A" );
+        MenusInvalidationBus busB = new MenusInvalidationBus( transport, serviceB, "B" );
+
+        busA.invalidate( MenusInvalidationMessage.SCOPE_PAGE, 12 );
+        busA.invalidate( MenusInvalidationMessage.SCOPE_CUSTOM_MENUS );
+
+        // Applied at once on the node raising it
+        assertEquals( 2, serviceA._listApplied.size( ) );
+
+        assertEquals( 2, busB.poll( ) );
+        assertEquals( MenusInvalidationMessage.SCOPE_PAGE, serviceB._listApplied.get( 0 ).getScope( ) );
+        assertEquals( 12, serviceB._listApplied.get( 0 ).getPageId( ) );
+        assertEquals( MenusInvalidationMessage.SCOPE_CUSTOM_MENUS, serviceB._listApplied.get( 1 ).getScope( ) );
+
+        // A node skips its own messages and the messages it already applied
+        assertEquals( 0, busA.poll( ) );
+        assertEquals( 0, busB.poll( ) );
+        assertEquals( 2, busB.getLastVersion( ) );
+    }
+
+    @Test
+    public void testStartVersion( )
+    {
+        InProcessInvalidationTransport transport = new InProcessInvalidationTransport( );
+        MenusInvalidationBus busA = new MenusInvalidationBus( transport, new RecordingInvalidationService( ), "A" );
+        busA.invalidate( MenusInvalidationMessage.SCOPE_SITE );
+
+        // A node started after a message has empty caches and ignores it
+        RecordingInvalidationService serviceB = new RecordingInvalidationService( );
+        MenusInvalidationBus busB = new MenusInvalidationBus( transport, serviceB, "B" );
+
+        assertEquals( 0, busB.poll( ) );
+
+        busA.invalidate( MenusInvalidationMessage.SCOPE_MENUS );
+
+        assertEquals( 1, busB.poll( ) );
+        assertEquals( MenusInvalidationMessage.SCOPE_MENUS, serviceB._listApplied.get( 0 ).getScope( ) );
+    }
+
+    /**
+     * Invalidation service recording the applied messages
+     */
+    private static class RecordingInvalidationService extends MenuCacheInvalidationService
+    {
+        private final List < MenusInvalidationMessage > _listApplied = new ArrayList <>( );
+
+        @Override
+        public void apply( MenusInvalidationMessage message )
+        {
+            _listApplied.add( message );
+        }
+    }
+}